@@ -0,0 +1,99 @@
+package ch.jalu.wordlehelper;
+
+import ch.jalu.wordlehelper.benchmark.SyntheticWords;
+import ch.jalu.wordlehelper.evaluation.GameDataCreator;
+import ch.jalu.wordlehelper.evaluation.LetterFrequencyCalculator;
+import ch.jalu.wordlehelper.evaluation.ScoringExecutor;
+import ch.jalu.wordlehelper.evaluation.WordBitsetIndex;
+import ch.jalu.wordlehelper.evaluation.WordleTurnEvaluator;
+import ch.jalu.wordlehelper.model.Turn;
+import ch.jalu.wordlehelper.model.WordDictionary;
+import ch.jalu.wordlehelper.model.WordleResultData;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH version of the candidate filtering and scorer cases of {@link SolverBenchmark}, with the same synthetic
+ * dictionaries and game states. Dictionaries that are too large for a pattern matrix are scored with the sampled
+ * dictionary of {@link SolverBenchmark#sampleDictionary}. Built and run with the {@code jmh} Maven profile (see
+ * README); run with {@code -prof gc} to also see the allocations.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 3, time = 1)
+@Fork(1)
+public class ScorerJmhBenchmark {
+
+    @Param({ "1000", "10000", "100000" })
+    private int size;
+
+    @Param({ "1", "2", "3" })
+    private int depth;
+
+    private WordBitsetIndex wordIndex;
+    private WordleResultData resultData;
+    private List<String> possibleWords;
+    private TurnEvaluator turnEvaluator;
+
+    @Setup
+    public void setUp() {
+        WordleTurnEvaluator wordleTurnEvaluator = new WordleTurnEvaluator();
+        GameDataCreator gameDataCreator = new GameDataCreator();
+        List<String> words = SyntheticWords.generate(size, size);
+        List<Turn> turns = SolverBenchmark.createTurns(wordleTurnEvaluator, words, depth, new Random(depth));
+        resultData = gameDataCreator.constructResultData(turns);
+        wordIndex = WordBitsetIndex.build(WordDictionary.of(words));
+        possibleWords = wordIndex.toWords(wordIndex.filter(resultData));
+        if (possibleWords.size() > SolverBenchmark.MAX_MATRIX_WORDS) {
+            throw new IllegalStateException("Too many candidates to benchmark the scorers: " + possibleWords.size());
+        }
+
+        List<String> scoredWords = words.size() <= SolverBenchmark.MAX_MATRIX_WORDS
+            ? words
+            : SolverBenchmark.sampleDictionary(words, possibleWords);
+        turnEvaluator = new TurnEvaluator(gameDataCreator, wordleTurnEvaluator, new LetterFrequencyCalculator(),
+            WordDictionary.of(scoredWords), ScoringExecutor.serial(), null);
+    }
+
+    @Benchmark
+    public long[] filterCandidates() {
+        return wordIndex.filter(resultData);
+    }
+
+    @Benchmark
+    public TreeMap<BigDecimal, List<String>> scoreByNewInfo() {
+        return turnEvaluator.scoreByNewInfo(resultData, possibleWords).weighted();
+    }
+
+    @Benchmark
+    public TreeMap<BigDecimal, List<String>> scoreByInfo() {
+        return turnEvaluator.scoreByInfo(possibleWords, possibleWords);
+    }
+
+    @Benchmark
+    public TreeMap<BigDecimal, List<String>> findTopWordsByEntropy() {
+        return turnEvaluator.findTopWordsByEntropy(possibleWords, 10);
+    }
+
+    @Benchmark
+    public TreeMap<BigDecimal, List<String>> findTopWordsByEntropyHardMode() {
+        return turnEvaluator.findTopWordsByEntropy(possibleWords, possibleWords, 10);
+    }
+}
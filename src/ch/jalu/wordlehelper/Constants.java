@@ -1,22 +1,27 @@
 package ch.jalu.wordlehelper;
 
-import java.math.BigDecimal;
-
 public final class Constants {
 
     public static final boolean USE_PAST_RESULTS = false;
 
-    public static final boolean ENABLE_TIMER = false;
+    /** Number of threads to score words with; 1 to score on the main thread only. */
+    public static final int SCORING_THREADS = Runtime.getRuntime().availableProcessors();
+
+    /** Number of decimal places of the weights below, i.e. a weight of 50 corresponds to 0.5. */
+    public static final int WEIGHT_SCALE = 2;
 
-    public static final BigDecimal WEIGHT_NEW_EXACT          = new BigDecimal("1");
-    public static final BigDecimal WEIGHT_MIN_TO_EXACT       = new BigDecimal("0.5");
-    public static final BigDecimal WEIGHT_NEW_FULL_EXCLUSION = new BigDecimal("0.1");
-    public static final BigDecimal WEIGHT_NEW_YELLOW         = new BigDecimal("1");
-    public static final BigDecimal WEIGHT_CHANGED_YELLOW     = new BigDecimal("0.5");
-    public static final BigDecimal WEIGHT_NEW_GREEN_CELL     = new BigDecimal("0.25");
+    public static final long WEIGHT_NEW_EXACT          = 100;
+    public static final long WEIGHT_MIN_TO_EXACT       =  50;
+    public static final long WEIGHT_NEW_FULL_EXCLUSION =  10;
+    public static final long WEIGHT_NEW_YELLOW         = 100;
+    public static final long WEIGHT_CHANGED_YELLOW     =  50;
+    public static final long WEIGHT_NEW_GREEN_CELL     =  25;
 
     public static final int WORD_LENGTH = 5;
 
+    /** Number of guesses a game allows. */
+    public static final int MAX_GUESSES = 6;
+
     private Constants() {
     }
 }
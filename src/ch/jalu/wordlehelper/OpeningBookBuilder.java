@@ -0,0 +1,124 @@
+package ch.jalu.wordlehelper;
+
+import ch.jalu.wordlehelper.evaluation.GameDataCreator;
+import ch.jalu.wordlehelper.evaluation.LetterFrequencyCalculator;
+import ch.jalu.wordlehelper.evaluation.OpeningBook;
+import ch.jalu.wordlehelper.evaluation.OpeningBook.BookLine;
+import ch.jalu.wordlehelper.evaluation.OpeningBook.ScoredGuess;
+import ch.jalu.wordlehelper.evaluation.PatternMatrix;
+import ch.jalu.wordlehelper.evaluation.ScoringExecutor;
+import ch.jalu.wordlehelper.evaluation.WordleTurnEvaluator;
+import ch.jalu.wordlehelper.model.WordDictionary;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import static ch.jalu.wordlehelper.Constants.SCORING_THREADS;
+
+/**
+ * Builds the opening book: for every feedback of the given starter words, the second guesses with the highest
+ * entropy are computed and written to {@link OpeningBook#DEFAULT_FILE}, which is used by {@link TurnEvaluator}.
+ * <p>
+ * Arguments: the starter words (default: SOARE ARISE). Starter words that are not in the dictionary are skipped.
+ */
+public class OpeningBookBuilder {
+
+    /** Number of guesses that are saved per feedback. */
+    private static final int GUESSES_PER_LINE = 5;
+
+    private final TurnEvaluator turnEvaluator;
+    private final List<String> allWords;
+
+    OpeningBookBuilder(TurnEvaluator turnEvaluator, List<String> allWords) {
+        this.turnEvaluator = turnEvaluator;
+        this.allWords = allWords;
+    }
+
+    public static void main(String... args) {
+        List<String> starters = args.length > 0 ? List.of(args) : List.of("SOARE", "ARISE");
+        if (starters.size() > OpeningBook.MAX_ENTRIES) {
+            throw new IllegalArgumentException("Can build a book for at most " + OpeningBook.MAX_ENTRIES
+                + " starters, got " + starters.size());
+        }
+        WordDictionary dictionary = TurnEvaluator.loadDictionary();
+        List<String> allWords = dictionary.getWords();
+        try (ScoringExecutor executor = ScoringExecutor.withParallelism(SCORING_THREADS)) {
+            TurnEvaluator turnEvaluator = new TurnEvaluator(new GameDataCreator(), new WordleTurnEvaluator(),
+                new LetterFrequencyCalculator(), dictionary, executor, null);
+            OpeningBookBuilder builder = new OpeningBookBuilder(turnEvaluator, allWords);
+
+            Map<String, BookLine[]> linesByStarter = new LinkedHashMap<>();
+            for (String starter : starters) {
+                String word = starter.toUpperCase();
+                if (turnEvaluator.getPatternMatrix().indexOf(word) < 0) {
+                    System.out.println("Skipping " + word + " as it is not in the dictionary");
+                } else {
+                    long start = System.nanoTime();
+                    linesByStarter.put(word, builder.createLines(word));
+                    System.out.println("Computed lines for " + word + " in "
+                        + (System.nanoTime() - start) / 1_000_000 + " ms");
+                }
+            }
+            if (linesByStarter.isEmpty()) {
+                throw new IllegalArgumentException("None of the starter words " + starters + " is in the dictionary");
+            }
+
+            new OpeningBook(allWords, linesByStarter).write(OpeningBook.DEFAULT_FILE, allWords);
+            System.out.println("Wrote opening book to " + OpeningBook.DEFAULT_FILE.toAbsolutePath());
+        }
+    }
+
+    /**
+     * Computes the best second guesses for every feedback the starter word can produce.
+     *
+     * @param starter the starter word
+     * @return book lines indexed by pattern code
+     */
+    BookLine[] createLines(String starter) {
+        PatternMatrix patternMatrix = turnEvaluator.getPatternMatrix();
+        int starterIndex = patternMatrix.requireIndex(starter);
+        List<List<String>> candidatesByPattern = new ArrayList<>(WordleTurnEvaluator.PATTERN_COUNT);
+        for (int pattern = 0; pattern < WordleTurnEvaluator.PATTERN_COUNT; ++pattern) {
+            candidatesByPattern.add(new ArrayList<>());
+        }
+        for (int i = 0; i < allWords.size(); ++i) {
+            candidatesByPattern.get(patternMatrix.getPattern(starterIndex, i)).add(allWords.get(i));
+        }
+
+        BookLine[] lines = new BookLine[WordleTurnEvaluator.PATTERN_COUNT];
+        for (int pattern = 0; pattern < WordleTurnEvaluator.ALL_GREEN_PATTERN; ++pattern) {
+            List<String> candidates = candidatesByPattern.get(pattern);
+            if (!candidates.isEmpty()) {
+                lines[pattern] = new BookLine(candidates.size(), findBestGuesses(candidates));
+            }
+        }
+        return lines;
+    }
+
+    /**
+     * Returns the words with the highest entropy over the given candidates. Among words with the same entropy,
+     * candidates come first since they may be the result.
+     */
+    private List<ScoredGuess> findBestGuesses(List<String> candidates) {
+        boolean[] isCandidateById = new boolean[allWords.size()];
+        for (int id : turnEvaluator.getPatternMatrix().toIndices(candidates)) {
+            isCandidateById[id] = true;
+        }
+        BigDecimal[] entropyById = Arrays.stream(turnEvaluator.calculateEntropies(candidates))
+            .mapToObj(TurnEvaluator::toEntropyScore)
+            .toArray(BigDecimal[]::new);
+        return IntStream.range(0, allWords.size()).boxed()
+            .sorted(Comparator.comparing((Integer id) -> entropyById[id]).reversed()
+                .thenComparing(id -> !isCandidateById[id])
+                .thenComparing(allWords::get))
+            .limit(GUESSES_PER_LINE)
+            .map(id -> new ScoredGuess(allWords.get(id), entropyById[id]))
+            .toList();
+    }
+}
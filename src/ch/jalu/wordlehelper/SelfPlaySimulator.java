@@ -0,0 +1,126 @@
+package ch.jalu.wordlehelper;
+
+import ch.jalu.wordlehelper.evaluation.GameDataCreator;
+import ch.jalu.wordlehelper.evaluation.GameTreeSolver;
+import ch.jalu.wordlehelper.evaluation.LetterFrequencyCalculator;
+import ch.jalu.wordlehelper.evaluation.ScoringExecutor;
+import ch.jalu.wordlehelper.evaluation.SplitterWordFinder;
+import ch.jalu.wordlehelper.evaluation.WordleTurnEvaluator;
+import ch.jalu.wordlehelper.model.WordDictionary;
+import ch.jalu.wordlehelper.simulation.GameSimulator;
+import ch.jalu.wordlehelper.simulation.Strategy;
+import ch.jalu.wordlehelper.util.FileUtil;
+
+import java.nio.file.Paths;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static ch.jalu.wordlehelper.Constants.MAX_GUESSES;
+import static ch.jalu.wordlehelper.Constants.SCORING_THREADS;
+
+/**
+ * Plays every answer to completion with the strategies of {@link TurnEvaluator} and reports how many guesses they
+ * need as well as how fast the games are played.
+ * <p>
+ * Arguments (all optional): the strategy ({@code all} or one of {@link #createStrategies}), the number of threads
+ * and a file with the answers to play against (default: all words). Example: {@code entropy 4 past_results.txt}.
+ */
+public class SelfPlaySimulator {
+
+    /** Largest number of possible words for which the solver strategy searches the game tree. */
+    private static final int MAX_SOLVER_CANDIDATES = 50;
+
+    private final TurnEvaluator turnEvaluator;
+    private final List<String> allWords;
+
+    SelfPlaySimulator(TurnEvaluator turnEvaluator, List<String> allWords) {
+        this.turnEvaluator = turnEvaluator;
+        this.allWords = allWords;
+    }
+
+    public static void main(String... args) {
+        String strategyName = args.length > 0 ? args[0] : "all";
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : SCORING_THREADS;
+        WordDictionary dictionary = TurnEvaluator.loadDictionary();
+        List<String> allWords = dictionary.getWords();
+        List<String> answers = args.length > 2 ? FileUtil.readWordFileAsList(Paths.get(args[2])) : allWords;
+
+        GameDataCreator gameDataCreator = new GameDataCreator();
+        WordleTurnEvaluator wordleTurnEvaluator = new WordleTurnEvaluator();
+        // Games are played in parallel, so every game scores on its own thread
+        TurnEvaluator turnEvaluator = new TurnEvaluator(gameDataCreator, wordleTurnEvaluator,
+            new LetterFrequencyCalculator(), dictionary, ScoringExecutor.serial(), null);
+        Map<String, Strategy> strategies = new SelfPlaySimulator(turnEvaluator, allWords).createStrategies();
+        if (!"all".equals(strategyName)) {
+            Strategy strategy = strategies.get(strategyName);
+            if (strategy == null) {
+                throw new IllegalArgumentException("Unknown strategy '" + strategyName + "'. Available: all, "
+                    + String.join(", ", strategies.keySet()));
+            }
+            strategies = Map.of(strategyName, strategy);
+        }
+
+        try (ScoringExecutor executor = ScoringExecutor.withParallelism(threads)) {
+            GameSimulator simulator = new GameSimulator(gameDataCreator, wordleTurnEvaluator, allWords, executor);
+            strategies.forEach((name, strategy) -> {
+                simulator.simulate(strategy, answers).print(name);
+                System.out.println();
+            });
+        }
+    }
+
+    /**
+     * Creates the strategies by name. All strategies play the only candidate if two or fewer remain.
+     *
+     * @return strategies by name
+     */
+    Map<String, Strategy> createStrategies() {
+        Map<String, Strategy> strategies = new LinkedHashMap<>();
+        strategies.put("entropy", (turns, resultData, candidates) -> chooseByEntropy(candidates));
+        strategies.put("info", (turns, resultData, candidates) ->
+            turnEvaluator.scoreByInfo(candidates, candidates).firstEntry().getValue().get(0));
+        strategies.put("newinfo", (turns, resultData, candidates) -> preferCandidate(
+            turnEvaluator.scoreByNewInfo(resultData, candidates).weighted().firstEntry().getValue(), candidates));
+        strategies.put("split", (turns, resultData, candidates) -> preferCandidate(
+            SplitterWordFinder.split(allWords, candidates, turnEvaluator.getPatternMatrix(), true)
+                .firstEntry().getValue(), candidates));
+        strategies.put("solver", (turns, resultData, candidates) -> chooseBySolver(turns.size(), candidates));
+        strategies.put("first", (turns, resultData, candidates) -> candidates.get(0));
+
+        strategies.replaceAll((name, strategy) -> (turns, resultData, candidates) -> candidates.size() <= 2
+            ? candidates.get(0)
+            : strategy.chooseGuess(turns, resultData, candidates));
+        return strategies;
+    }
+
+    private String chooseByEntropy(List<String> candidates) {
+        return preferCandidate(turnEvaluator.findTopWordsByEntropy(candidates, 1).firstEntry().getValue(), candidates);
+    }
+
+    private String chooseBySolver(int playedTurns, List<String> candidates) {
+        if (candidates.size() <= MAX_SOLVER_CANDIDATES) {
+            // A new solver for every call, since the solver is not thread-safe
+            GameTreeSolver solver = new GameTreeSolver(turnEvaluator.getPatternMatrix(),
+                GameTreeSolver.Objective.EXPECTED, allWords, MAX_SOLVER_CANDIDATES);
+            GameTreeSolver.Solution solution = solver.solve(candidates, Math.max(1, MAX_GUESSES - playedTurns));
+            if (solution != null) {
+                return solver.getWord(solution.guessIndex());
+            }
+        }
+        return chooseByEntropy(candidates);
+    }
+
+    /**
+     * Returns the first of the equally scored words that is a candidate, or the first word if none is.
+     */
+    private static String preferCandidate(List<String> equallyScoredWords, Collection<String> candidates) {
+        Set<String> candidateSet = Set.copyOf(candidates);
+        return equallyScoredWords.stream()
+            .filter(candidateSet::contains)
+            .findFirst()
+            .orElse(equallyScoredWords.get(0));
+    }
+}
@@ -0,0 +1,228 @@
+package ch.jalu.wordlehelper;
+
+import ch.jalu.wordlehelper.benchmark.BenchmarkRunner;
+import ch.jalu.wordlehelper.benchmark.SyntheticWords;
+import ch.jalu.wordlehelper.evaluation.GameDataCreator;
+import ch.jalu.wordlehelper.evaluation.LetterFrequencyCalculator;
+import ch.jalu.wordlehelper.evaluation.LetterPermuter;
+import ch.jalu.wordlehelper.evaluation.PatternMatrix;
+import ch.jalu.wordlehelper.evaluation.ScoringExecutor;
+import ch.jalu.wordlehelper.evaluation.SplitterWordFinder;
+import ch.jalu.wordlehelper.evaluation.WordBitsetIndex;
+import ch.jalu.wordlehelper.evaluation.WordleTurnEvaluator;
+import ch.jalu.wordlehelper.model.Turn;
+import ch.jalu.wordlehelper.model.WordDictionary;
+import ch.jalu.wordlehelper.model.WordMatcher;
+import ch.jalu.wordlehelper.model.WordleResultData;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Benchmarks the hot paths of the solver on synthetic dictionaries of different sizes and with game states of
+ * different depths (number of played turns). Time, allocated bytes and garbage collections are reported per
+ * operation.
+ * <p>
+ * The scorers need a pattern matrix, which is too large for big dictionaries. For those, the scorers are run with a
+ * sampled dictionary: all candidates of the game state plus evenly spaced other words as guesses (shown as
+ * {@code guesses=} in the parameters), so that the candidate side of the work has its real size.
+ * <p>
+ * Arguments (all optional): comma-separated dictionary sizes, comma-separated turn depths, iteration time in ms.
+ * Example: {@code 1000,10000 1,2 500}.
+ */
+public class SolverBenchmark {
+
+    /** Largest dictionary for which the scorers are run with a pattern matrix of the whole dictionary. */
+    static final int MAX_MATRIX_WORDS = 15_000;
+
+    /** Minimum size of the sampled dictionary the scorers are run with for larger dictionaries. */
+    private static final int SAMPLED_DICTIONARY_WORDS = 10_000;
+
+    /** Largest number of possible words for which the "half" scoring is benchmarked (as in TurnEvaluator). */
+    private static final int MAX_REMAINING_WORDS_CANDIDATES = 300;
+
+    private final GameDataCreator gameDataCreator = new GameDataCreator();
+    private final WordleTurnEvaluator wordleTurnEvaluator = new WordleTurnEvaluator();
+    private final BenchmarkRunner runner;
+
+    SolverBenchmark(BenchmarkRunner runner) {
+        this.runner = runner;
+    }
+
+    public static void main(String... args) {
+        int[] sizes = args.length > 0 ? parseInts(args[0]) : new int[]{ 1_000, 10_000, 100_000 };
+        int[] depths = args.length > 1 ? parseInts(args[1]) : new int[]{ 1, 2, 3 };
+        long iterationMillis = args.length > 2 ? Long.parseLong(args[2]) : 500;
+
+        SolverBenchmark benchmark = new SolverBenchmark(new BenchmarkRunner(2, 3, iterationMillis));
+        BenchmarkRunner.printHeader();
+        for (int size : sizes) {
+            benchmark.runForDictionary(SyntheticWords.generate(size, size), depths);
+        }
+    }
+
+    private void runForDictionary(List<String> words, int[] depths) {
+        String sizeParam = "n=" + words.size();
+        runEvaluatorBenchmarks(words, sizeParam);
+        WordBitsetIndex wordIndex = WordBitsetIndex.build(WordDictionary.of(words));
+
+        TurnEvaluator turnEvaluator = null;
+        PatternMatrix patternMatrix = null;
+        if (words.size() <= MAX_MATRIX_WORDS) {
+            turnEvaluator = new TurnEvaluator(gameDataCreator, wordleTurnEvaluator, new LetterFrequencyCalculator(),
+                WordDictionary.of(words), ScoringExecutor.serial(), null);
+            patternMatrix = turnEvaluator.getPatternMatrix();
+        }
+
+        for (int depth : depths) {
+            List<Turn> turns = createTurns(wordleTurnEvaluator, words, depth, new Random(depth));
+            WordleResultData resultData = gameDataCreator.constructResultData(turns);
+            List<String> possibleWords = words.stream().filter(resultData.compile()::matches).toList();
+            String params = sizeParam + " depth=" + depth + " c=" + possibleWords.size();
+
+            runner.run("GameDataCreator.constructResultData", params,
+                () -> gameDataCreator.constructResultData(turns));
+            runner.run("WordleResultData.matches (scan)", params,
+                () -> words.stream().filter(resultData::matches).count());
+            runner.run("WordMatcher.matches (compile + scan)", params, () -> {
+                WordMatcher matcher = resultData.compile();
+                return words.stream().filter(matcher::matches).count();
+            });
+            runner.run("WordBitsetIndex.filter (count)", params,
+                () -> WordBitsetIndex.count(wordIndex.filter(resultData)));
+            runner.run("WordBitsetIndex.filter (words)", params,
+                () -> wordIndex.toWords(wordIndex.filter(resultData)));
+            runner.run("LetterPermuter.generateAllCombinations", params,
+                () -> LetterPermuter.generateAllCombinations(resultData));
+            runner.run("LetterPermuter.streamMatchingCombinations", params,
+                () -> LetterPermuter.streamMatchingCombinations(resultData, possibleWords).count());
+            runner.run("LetterPermuter.countAllCombinations", params,
+                () -> LetterPermuter.countAllCombinations(resultData));
+
+            if (turnEvaluator != null) {
+                runScorerBenchmarks(turnEvaluator, patternMatrix, words, resultData, possibleWords, params);
+            } else if (possibleWords.size() > MAX_MATRIX_WORDS) {
+                String reason = "more than " + MAX_MATRIX_WORDS + " candidates";
+                runner.skip("SplitterWordFinder.split0", params, reason);
+                runner.skip("TurnEvaluator.*", params, reason);
+            } else {
+                List<String> sampledWords = sampleDictionary(words, possibleWords);
+                TurnEvaluator sampledEvaluator = new TurnEvaluator(gameDataCreator, wordleTurnEvaluator,
+                    new LetterFrequencyCalculator(), WordDictionary.of(sampledWords), ScoringExecutor.serial(), null);
+                runScorerBenchmarks(sampledEvaluator, sampledEvaluator.getPatternMatrix(), sampledWords, resultData,
+                    possibleWords, params + " guesses=" + sampledWords.size());
+            }
+        }
+    }
+
+    /**
+     * Returns the candidates and evenly spaced other words of the dictionary, in dictionary order, for dictionaries
+     * that are too large for a pattern matrix. The result has at least {@link #SAMPLED_DICTIONARY_WORDS} words, and
+     * twice as many words as there are candidates if that is more, up to {@link #MAX_MATRIX_WORDS}.
+     *
+     * @param words the dictionary
+     * @param possibleWords the candidates (at most {@link #MAX_MATRIX_WORDS})
+     * @return the sampled dictionary
+     */
+    static List<String> sampleDictionary(List<String> words, List<String> possibleWords) {
+        int size = Math.max(SAMPLED_DICTIONARY_WORDS, Math.min(MAX_MATRIX_WORDS, 2 * possibleWords.size()));
+        Set<String> candidates = new HashSet<>(possibleWords);
+        double step = (double) (words.size() - candidates.size()) / (size - candidates.size());
+        List<String> sampledWords = new ArrayList<>(size);
+        double nextSample = 0;
+        int otherWordIndex = 0;
+        for (String word : words) {
+            if (candidates.contains(word)) {
+                sampledWords.add(word);
+            } else {
+                if (otherWordIndex >= nextSample) {
+                    sampledWords.add(word);
+                    nextSample += step;
+                }
+                ++otherWordIndex;
+            }
+        }
+        return sampledWords;
+    }
+
+    private void runEvaluatorBenchmarks(List<String> words, String params) {
+        int[] counter = new int[1];
+        runner.run("WordleTurnEvaluator.evaluateCells", params, () -> {
+            int i = nextIndex(counter, words.size());
+            return wordleTurnEvaluator.evaluateCells(words.get(i), words.get(words.size() - 1 - i));
+        });
+        runner.run("WordleTurnEvaluator.evaluatePattern", params, () -> {
+            int i = nextIndex(counter, words.size());
+            return wordleTurnEvaluator.evaluatePattern(words.get(i), words.get(words.size() - 1 - i));
+        });
+        int[] packedWords = words.stream().mapToInt(WordDictionary::pack).toArray();
+        runner.run("WordleTurnEvaluator.evaluatePattern (packed)", params, () -> {
+            int i = nextIndex(counter, words.size());
+            return wordleTurnEvaluator.evaluatePattern(packedWords[i], packedWords[words.size() - 1 - i]);
+        });
+        runner.run("WordleTurnEvaluator.calculateScore", params, () -> {
+            int i = nextIndex(counter, words.size());
+            return wordleTurnEvaluator.calculateScore(words.get(i), words.get(words.size() - 1 - i));
+        });
+    }
+
+    private void runScorerBenchmarks(TurnEvaluator turnEvaluator, PatternMatrix patternMatrix, List<String> words,
+                                     WordleResultData resultData, List<String> possibleWords, String params) {
+        if (possibleWords.size() < 2) {
+            runner.skip("SplitterWordFinder.split0", params, "fewer than 2 candidates");
+            runner.skip("TurnEvaluator.*", params, "fewer than 2 candidates");
+            return;
+        }
+
+        runner.run("SplitterWordFinder.split0", params,
+            () -> SplitterWordFinder.split0(words, possibleWords, patternMatrix));
+
+        runner.run("TurnEvaluator.scoreByNewInfo", params,
+            () -> turnEvaluator.scoreByNewInfo(resultData, possibleWords));
+        runner.run("TurnEvaluator.scoreByInfo", params,
+            () -> turnEvaluator.scoreByInfo(possibleWords, possibleWords));
+        runner.run("TurnEvaluator.findTopWordsByEntropy", params,
+            () -> turnEvaluator.findTopWordsByEntropy(possibleWords, 10));
+        runner.run("TurnEvaluator.scoreByNewInfo.hard", params,
+            () -> turnEvaluator.scoreByNewInfo(resultData, possibleWords, possibleWords));
+        runner.run("TurnEvaluator.findTopWordsByEntropy.hard", params,
+            () -> turnEvaluator.findTopWordsByEntropy(possibleWords, possibleWords, 10));
+        if (possibleWords.size() < MAX_REMAINING_WORDS_CANDIDATES) {
+            runner.run("TurnEvaluator.scoreByRemainingWords", params,
+                () -> turnEvaluator.scoreByRemainingWords(words, possibleWords, 10));
+        } else {
+            runner.skip("TurnEvaluator.scoreByRemainingWords", params,
+                "not fewer than " + MAX_REMAINING_WORDS_CANDIDATES + " candidates");
+        }
+    }
+
+    /**
+     * Plays the given number of random words against a random answer.
+     */
+    static List<Turn> createTurns(WordleTurnEvaluator wordleTurnEvaluator, List<String> words, int depth,
+                                  Random random) {
+        String answer = words.get(random.nextInt(words.size()));
+        List<Turn> turns = new ArrayList<>(depth);
+        for (int i = 0; i < depth; ++i) {
+            String guess = words.get(random.nextInt(words.size()));
+            turns.add(new Turn(wordleTurnEvaluator.evaluateCells(guess, answer)));
+        }
+        return turns;
+    }
+
+    private static int nextIndex(int[] counter, int size) {
+        counter[0] = (counter[0] + 1) % size;
+        return counter[0];
+    }
+
+    private static int[] parseInts(String commaSeparated) {
+        return Arrays.stream(commaSeparated.split(","))
+            .map(String::trim)
+            .mapToInt(Integer::parseInt)
+            .toArray();
+    }
+}
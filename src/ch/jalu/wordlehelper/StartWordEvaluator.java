@@ -1,26 +1,31 @@
 package ch.jalu.wordlehelper;
 
+import ch.jalu.wordlehelper.evaluation.LetterCoverageSearch;
+import ch.jalu.wordlehelper.evaluation.LetterCoverageSearch.Coverage;
 import ch.jalu.wordlehelper.evaluation.LetterFrequencyCalculator;
+import ch.jalu.wordlehelper.evaluation.ScoringExecutor;
 import ch.jalu.wordlehelper.evaluation.WordleTurnEvaluator;
 import ch.jalu.wordlehelper.util.FileUtil;
-import ch.jalu.wordlehelper.util.ListSortedMultimap;
+import ch.jalu.wordlehelper.util.TopKeysCollector;
 
 import java.math.BigDecimal;
+import java.math.MathContext;
 import java.nio.file.Paths;
 import java.util.Collection;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
-import java.util.Set;
 import java.util.TreeMap;
-import java.util.stream.Stream;
 
+import static ch.jalu.wordlehelper.Constants.SCORING_THREADS;
 import static ch.jalu.wordlehelper.Constants.WORD_LENGTH;
-import static ch.jalu.wordlehelper.util.CollectionUtil.invertMap;
-import static ch.jalu.wordlehelper.util.CollectionUtil.retainTopKeys;
 
 public class StartWordEvaluator {
 
+    /** Number of distinct scores that are shown per ranking. */
+    private static final int TOP_SCORES_TO_SHOW = 10;
+
+    /** Number of word sets that are shown per set size. */
+    private static final int WORD_SETS_TO_SHOW = 10;
+
     private final LetterFrequencyCalculator letterFrequencyCalculator;
     private final WordleTurnEvaluator wordleTurnEvaluator;
 
@@ -37,88 +42,75 @@ public class StartWordEvaluator {
 
     private void evaluate() {
         List<String> starterWords  = FileUtil.readWordFileAndSort(Paths.get("words.txt"));
-        Set<String> allWords       = FileUtil.readWordFileAsSet(Paths.get("all_words.txt"));
-        List<String> pastResults   = FileUtil.readWordFileAsList(Paths.get("past_results.txt"));
+        List<String> allWords      = FileUtil.readWordFileAsDictionary(Paths.get("all_words.txt")).getWords();
+        List<String> pastResults   = FileUtil.readWordFileAsDictionary(Paths.get("past_results.txt")).getWords();
         System.out.println("Read " + starterWords.size() + " starter words, " + allWords.size() + " total words, "
             + pastResults.size() + " result words");
 
 //        System.out.println("Letter frequencies");
-        Map<Character, BigDecimal> charFrequencyStarters    = letterFrequencyCalculator.calculateFrequencyOfLetters(starterWords);
-        Map<Character, BigDecimal> charFrequencyAll         = letterFrequencyCalculator.calculateFrequencyOfLetters(allWords);
-        Map<Character, BigDecimal> charFrequencyPastResults = letterFrequencyCalculator.calculateFrequencyOfLetters(pastResults);
-//        System.out.println(invertMap(charFrequencyStarters));
-//        System.out.println(invertMap(charFrequencyAll));
-//        System.out.println(invertMap(charFrequencyPastResults));
+        double[] charFrequencyStarters    = letterFrequencyCalculator.calculateFrequencyOfLetters(starterWords);
+        double[] charFrequencyAll         = letterFrequencyCalculator.calculateFrequencyOfLetters(allWords);
+        double[] charFrequencyPastResults = letterFrequencyCalculator.calculateFrequencyOfLetters(pastResults);
+//        System.out.println(Arrays.toString(charFrequencyStarters));
+//        System.out.println(Arrays.toString(charFrequencyAll));
+//        System.out.println(Arrays.toString(charFrequencyPastResults));
 
         System.out.println();
         System.out.println("By letter frequency");
-        Map<String, BigDecimal> frequencyScoreStarters    = scoreWordsByLetterFrequency(charFrequencyStarters, starterWords);
-        Map<String, BigDecimal> frequencyScoreAll         = scoreWordsByLetterFrequency(charFrequencyAll, starterWords);
-        Map<String, BigDecimal> frequencyScorePastResults = scoreWordsByLetterFrequency(charFrequencyPastResults, starterWords);
-        System.out.println(retainTopKeys(invertMap(frequencyScoreStarters), 10));
-        System.out.println(retainTopKeys(invertMap(frequencyScoreAll), 10));
-        System.out.println(retainTopKeys(invertMap(frequencyScorePastResults), 10));
-
-        System.out.println();
-        System.out.println("Word pairs, by letter frequency");
-        TreeMap<BigDecimal, List<String>> wordPairs = scoreWordPairs(charFrequencyAll, starterWords);
-        retainTopKeys(wordPairs, 10);
-        System.out.println(wordPairs);
+        TreeMap<BigDecimal, List<String>> frequencyScoreStarters    = scoreWordsByLetterFrequency(charFrequencyStarters, starterWords);
+        TreeMap<BigDecimal, List<String>> frequencyScoreAll         = scoreWordsByLetterFrequency(charFrequencyAll, starterWords);
+        TreeMap<BigDecimal, List<String>> frequencyScorePastResults = scoreWordsByLetterFrequency(charFrequencyPastResults, starterWords);
+        System.out.println(frequencyScoreStarters.descendingMap());
+        System.out.println(frequencyScoreAll.descendingMap());
+        System.out.println(frequencyScorePastResults.descendingMap());
+
+        LetterCoverageSearch coverageSearch = new LetterCoverageSearch(charFrequencyAll, allWords.stream().sorted().toList());
+        try (ScoringExecutor executor = ScoringExecutor.withParallelism(SCORING_THREADS)) {
+            for (int wordsPerSet = 2; wordsPerSet <= 4; ++wordsPerSet) {
+                System.out.println();
+                System.out.println("Sets of " + wordsPerSet + " words, by frequency of covered letters");
+                List<Coverage> bestSets = coverageSearch.findBestSets(wordsPerSet, WORD_SETS_TO_SHOW, executor);
+                bestSets.forEach(set -> System.out.println(" " + toDisplayedScore(set.score()) + "=" + set));
+            }
+        }
 
         System.out.println();
         System.out.println("Score by info");
         TreeMap<BigDecimal, List<String>> infoScoreStarters    = scoreByInfo(starterWords, starterWords);
         TreeMap<BigDecimal, List<String>> infoScoreAll         = scoreByInfo(starterWords, allWords);
         TreeMap<BigDecimal, List<String>> infoScorePastResults = scoreByInfo(starterWords, pastResults);
-        System.out.println(retainTopKeys(infoScoreStarters, 10));
-        System.out.println(retainTopKeys(infoScoreAll, 10));
-        System.out.println(retainTopKeys(infoScorePastResults, 10));
+        System.out.println(infoScoreStarters.descendingMap());
+        System.out.println(infoScoreAll.descendingMap());
+        System.out.println(infoScorePastResults.descendingMap());
     }
 
-    private Map<String, BigDecimal> scoreWordsByLetterFrequency(Map<Character, BigDecimal> frequencyMap, List<String> words) {
-        Map<String, BigDecimal> scoreByWord = new HashMap<>();
+    private TreeMap<BigDecimal, List<String>> scoreWordsByLetterFrequency(double[] frequencyByLetter,
+                                                                          List<String> words) {
+        TopKeysCollector<BigDecimal, String> wordsByScore = TopKeysCollector.highest(TOP_SCORES_TO_SHOW);
         for (String word : words) {
-            BigDecimal score = BigDecimal.ZERO;
+            double score = 0;
             for (int i = 0; i < WORD_LENGTH; ++i) {
-                score = score.add(frequencyMap.get(word.charAt(i)));
+                score += frequencyByLetter[word.charAt(i) - 'A'];
             }
-            scoreByWord.put(word, score);
+            wordsByScore.add(toDisplayedScore(score), word);
         }
-        return scoreByWord;
-    }
-
-    private TreeMap<BigDecimal, List<String>> scoreWordPairs(Map<Character, BigDecimal> charFrequency,
-                                                             List<String> words) {
-        ListSortedMultimap<BigDecimal, String> pairsByScore = new ListSortedMultimap<>();
-        for (int i = 0; i < words.size(); ++i) {
-            String word1 = words.get(i);
-            for (int j = i + 1; j < words.size(); ++j) {
-                String word2 = words.get(j);
-                BigDecimal pairScore = Stream.concat(asCharStream(word1), asCharStream(word2))
-                    .distinct()
-                    .map(charFrequency::get)
-                    .reduce(BigDecimal.ZERO, BigDecimal::add);
-                pairsByScore.put(pairScore, word1 + "," + word2);
-            }
-        }
-        return pairsByScore.getBackingMap();
-    }
-
-    private static Stream<Character> asCharStream(String string) {
-        return string.chars()
-            .mapToObj(chr -> (char) chr);
+        return wordsByScore.getBackingMap();
     }
 
     private TreeMap<BigDecimal, List<String>> scoreByInfo(Collection<String> starterWords,
                                                           Collection<String> allWords) {
-        ListSortedMultimap<BigDecimal, String> wordsByScore = new ListSortedMultimap<>();
+        TopKeysCollector<BigDecimal, String> wordsByScore = TopKeysCollector.highest(TOP_SCORES_TO_SHOW);
         for (String myWord : starterWords) {
-            BigDecimal score = BigDecimal.ZERO;
+            long score = 0;
             for (String allWord : allWords) {
-                score = score.add(wordleTurnEvaluator.calculateScore(myWord, allWord));
+                score += wordleTurnEvaluator.calculateScore(myWord, allWord);
             }
-            wordsByScore.put(score, myWord);
+            wordsByScore.add(BigDecimal.valueOf(score, WordleTurnEvaluator.SCORE_SCALE), myWord);
         }
         return wordsByScore.getBackingMap();
     }
+
+    private static BigDecimal toDisplayedScore(double score) {
+        return new BigDecimal(score, MathContext.DECIMAL32).stripTrailingZeros();
+    }
 }
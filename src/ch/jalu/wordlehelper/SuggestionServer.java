@@ -0,0 +1,268 @@
+package ch.jalu.wordlehelper;
+
+import ch.jalu.wordlehelper.evaluation.GameDataCreator;
+import ch.jalu.wordlehelper.evaluation.LetterFrequencyCalculator;
+import ch.jalu.wordlehelper.evaluation.OpeningBook;
+import ch.jalu.wordlehelper.evaluation.RankingCache;
+import ch.jalu.wordlehelper.evaluation.ScoringExecutor;
+import ch.jalu.wordlehelper.evaluation.WordBitsetIndex;
+import ch.jalu.wordlehelper.evaluation.WordleTurnEvaluator;
+import ch.jalu.wordlehelper.metrics.Counter;
+import ch.jalu.wordlehelper.metrics.LatencyHistogram;
+import ch.jalu.wordlehelper.metrics.MetricsRegistry;
+import ch.jalu.wordlehelper.model.Turn;
+import ch.jalu.wordlehelper.model.WordDictionary;
+import ch.jalu.wordlehelper.model.WordleResultData;
+import ch.jalu.wordlehelper.util.JsonUtil;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static ch.jalu.wordlehelper.Constants.SCORING_THREADS;
+
+/**
+ * Serves suggestions over HTTP on the local machine, so that many games can be evaluated by one JVM whose
+ * dictionary, pattern matrix and word index are loaded once and shared by all requests.
+ * <p>
+ * {@code GET /suggest?turn=T%3FALES&turn=CO%3FU%3FRT%21&limit=10} returns the candidates and the best guesses by
+ * entropy as JSON. The turns use the syntax of {@link Turn#of}; they can also be sent with {@code POST /suggest},
+ * one turn per line in the body. The second turn is answered from the opening book if it covers the game. Rankings
+ * are cached by the set of candidates in a {@link RankingCache}. {@code GET /stats} returns the hit and miss counts of
+ * the cache and the metrics of the requests and the scorers.
+ * <p>
+ * Arguments (all optional): the port, the number of threads that handle requests, the number of threads that
+ * score the words of one request, the backlog of connections waiting to be accepted (0 for the system default), and
+ * a directory in which the rankings are saved across restarts. Example: {@code 8080 8 1 100 ranking_cache}.
+ */
+public class SuggestionServer {
+
+    static final int DEFAULT_PORT = 8080;
+    private static final int DEFAULT_LIMIT = 10;
+    private static final int MAX_LIMIT = 100;
+    /** Maximum number of candidates that are listed in a response (the count is always given). */
+    private static final int MAX_CANDIDATES_IN_RESPONSE = 100;
+    private static final int CACHE_MAX_ENTRIES = 100_000;
+    /** Maximum number of candidate ids and guesses in the in-memory cache (about 4 bytes each). */
+    private static final long CACHE_MAX_WEIGHT = 25_000_000;
+
+    private final TurnEvaluator turnEvaluator;
+    private final GameDataCreator gameDataCreator;
+    private final WordBitsetIndex wordIndex;
+    private final OpeningBook openingBook;
+    private final RankingCache rankingCache;
+    private final MetricsRegistry metrics;
+    private final LatencyHistogram requestLatency;
+    private final LatencyHistogram parseLatency;
+    private final LatencyHistogram constraintsLatency;
+    private final LatencyHistogram filterLatency;
+    private final Counter requestErrors;
+
+    SuggestionServer(TurnEvaluator turnEvaluator, GameDataCreator gameDataCreator, OpeningBook openingBook,
+                     RankingCache rankingCache) {
+        this.turnEvaluator = turnEvaluator;
+        this.gameDataCreator = gameDataCreator;
+        this.wordIndex = turnEvaluator.getWordIndex();
+        this.openingBook = openingBook;
+        this.rankingCache = rankingCache;
+        this.metrics = turnEvaluator.getMetrics();
+        this.requestLatency = metrics.histogram("request.suggest");
+        this.parseLatency = metrics.histogram("phase.parse");
+        this.constraintsLatency = metrics.histogram("phase.constraints");
+        this.filterLatency = metrics.histogram("phase.filter");
+        this.requestErrors = metrics.counter("request.errors");
+    }
+
+    public static void main(String... args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+        int requestThreads = args.length > 1 ? Integer.parseInt(args[1]) : SCORING_THREADS;
+        int scoringThreads = args.length > 2 ? Integer.parseInt(args[2]) : 1;
+        int backlog = args.length > 3 ? Integer.parseInt(args[3]) : 0;
+        String cacheDirectory = args.length > 4 ? args[4] : null;
+
+        WordDictionary dictionary = TurnEvaluator.loadDictionary();
+        OpeningBook openingBook = TurnEvaluator.loadOpeningBook(dictionary);
+        GameDataCreator gameDataCreator = new GameDataCreator();
+        // The scoring executor is shared by all requests; its fork/join pool accepts tasks from any thread
+        TurnEvaluator turnEvaluator = new TurnEvaluator(gameDataCreator, new WordleTurnEvaluator(),
+            new LetterFrequencyCalculator(), dictionary, ScoringExecutor.withParallelism(scoringThreads), openingBook);
+        RankingCache rankingCache = new RankingCache(dictionary, CACHE_MAX_ENTRIES, CACHE_MAX_WEIGHT,
+            cacheDirectory == null ? null : Paths.get(cacheDirectory));
+        SuggestionServer suggestionServer =
+            new SuggestionServer(turnEvaluator, gameDataCreator, openingBook, rankingCache);
+
+        ExecutorService requestExecutor = Executors.newFixedThreadPool(requestThreads);
+        HttpServer server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), backlog);
+        server.createContext("/suggest", suggestionServer::handleSuggest);
+        server.createContext("/stats", suggestionServer::handleStats);
+        server.setExecutor(requestExecutor);
+        server.start();
+        System.out.println("Serving " + dictionary.size() + " words on http://localhost:" + port + "/suggest with "
+            + requestThreads + " request threads and " + scoringThreads + " scoring threads per request");
+    }
+
+    /**
+     * Returns the candidates and suggestions for the given turns.
+     *
+     * @param turnStrings the played turns (see {@link Turn#of})
+     * @param limit maximum number of suggestions to return
+     * @return response data (see {@link JsonUtil})
+     */
+    Map<String, Object> suggest(List<String> turnStrings, int limit) {
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_LIMIT + ", got " + limit);
+        }
+        long start = System.nanoTime();
+        List<Turn> turns = turnStrings.stream().map(Turn::of).toList();
+        long parseEnd = System.nanoTime();
+        WordleResultData resultData = gameDataCreator.constructResultData(turns);
+        long constraintsEnd = System.nanoTime();
+        long[] candidateBits = wordIndex.filter(resultData);
+        parseLatency.record(parseEnd - start);
+        constraintsLatency.record(constraintsEnd - parseEnd);
+        filterLatency.recordSince(constraintsEnd);
+        List<String> candidates = wordIndex.toWords(candidateBits);
+
+        List<Map<String, Object>> suggestions = new ArrayList<>();
+        String source;
+        OpeningBook.BookLine bookLine = openingBook == null ? null : openingBook.getLine(turns);
+        if (bookLine != null) {
+            source = "book";
+            for (OpeningBook.ScoredGuess guess : bookLine.guesses()) {
+                addSuggestion(suggestions, guess.word(), guess.score(), candidateBits, limit);
+            }
+        } else if (candidates.size() >= 2) {
+            // Rank with the maximum limit, so that the cached ranking can serve requests with any limit
+            RankingCache.Lookup lookup = rankingCache.get(WordBitsetIndex.toIds(candidateBits),
+                () -> rankByEntropy(candidates));
+            source = lookup.source() == RankingCache.Source.COMPUTED ? "entropy" : "cache";
+            for (OpeningBook.ScoredGuess guess : lookup.ranking()) {
+                addSuggestion(suggestions, guess.word(), guess.score(), candidateBits, limit);
+            }
+        } else {
+            source = "entropy";
+        }
+
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("turns", turnStrings);
+        response.put("candidateCount", candidates.size());
+        response.put("candidates", candidates.subList(0, Math.min(candidates.size(), MAX_CANDIDATES_IN_RESPONSE)));
+        response.put("source", source);
+        response.put("suggestions", suggestions);
+        return response;
+    }
+
+    private List<OpeningBook.ScoredGuess> rankByEntropy(List<String> candidates) {
+        List<OpeningBook.ScoredGuess> ranking = new ArrayList<>();
+        turnEvaluator.findTopWordsByEntropy(candidates, MAX_LIMIT).forEach((score, words) -> words.stream()
+            .limit(MAX_LIMIT - ranking.size())
+            .forEach(word -> ranking.add(new OpeningBook.ScoredGuess(word, score))));
+        return ranking;
+    }
+
+    private void addSuggestion(List<Map<String, Object>> suggestions, String word, BigDecimal entropy,
+                               long[] candidateBits, int limit) {
+        if (suggestions.size() < limit) {
+            int id = wordIndex.getDictionary().getId(word);
+            Map<String, Object> suggestion = new LinkedHashMap<>();
+            suggestion.put("word", word);
+            suggestion.put("entropy", entropy);
+            suggestion.put("candidate", id >= 0 && WordBitsetIndex.contains(candidateBits, id));
+            suggestions.add(suggestion);
+        }
+    }
+
+    private void handleSuggest(HttpExchange exchange) throws IOException {
+        long start = System.nanoTime();
+        try {
+            String method = exchange.getRequestMethod();
+            if (!"GET".equals(method) && !"POST".equals(method)) {
+                exchange.getResponseHeaders().set("Allow", "GET, POST");
+                sendJson(exchange, 405, Map.of("error", "Method " + method + " is not supported"));
+                return;
+            }
+
+            List<String> turnStrings = new ArrayList<>();
+            int limit = DEFAULT_LIMIT;
+            for (Map.Entry<String, String> parameter : parseQuery(exchange.getRequestURI().getRawQuery())) {
+                switch (parameter.getKey()) {
+                    case "turn" -> turnStrings.add(parameter.getValue());
+                    case "limit" -> limit = Integer.parseInt(parameter.getValue());
+                    default -> throw new IllegalArgumentException("Unknown parameter '" + parameter.getKey() + "'");
+                }
+            }
+            if ("POST".equals(method)) {
+                String body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+                body.lines().map(String::trim).filter(line -> !line.isEmpty()).forEach(turnStrings::add);
+            }
+            sendJson(exchange, 200, suggest(turnStrings, limit));
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            requestErrors.increment();
+            sendJson(exchange, 400, Map.of("error", String.valueOf(e.getMessage())));
+        } catch (RuntimeException e) {
+            requestErrors.increment();
+            e.printStackTrace();
+            sendJson(exchange, 500, Map.of("error", "Internal error"));
+        } finally {
+            exchange.close();
+            requestLatency.recordSince(start);
+        }
+    }
+
+    private void handleStats(HttpExchange exchange) throws IOException {
+        try {
+            RankingCache.Stats stats = rankingCache.getStats();
+            Map<String, Object> cache = new LinkedHashMap<>();
+            cache.put("memoryHits", stats.memoryHits());
+            cache.put("diskHits", stats.diskHits());
+            cache.put("misses", stats.misses());
+            cache.put("diskWriteFailures", stats.diskWriteFailures());
+            cache.put("entries", stats.entries());
+            cache.put("weight", stats.weight());
+            Map<String, Object> response = new LinkedHashMap<>();
+            response.put("rankingCache", cache);
+            response.put("metrics", metrics.toMap());
+            sendJson(exchange, 200, response);
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private static List<Map.Entry<String, String>> parseQuery(String rawQuery) {
+        List<Map.Entry<String, String>> parameters = new ArrayList<>();
+        if (rawQuery != null) {
+            for (String pair : rawQuery.split("&")) {
+                if (!pair.isEmpty()) {
+                    int separator = pair.indexOf('=');
+                    String name = separator < 0 ? pair : pair.substring(0, separator);
+                    String value = separator < 0 ? "" : pair.substring(separator + 1);
+                    parameters.add(Map.entry(URLDecoder.decode(name, StandardCharsets.UTF_8),
+                        URLDecoder.decode(value, StandardCharsets.UTF_8)));
+                }
+            }
+        }
+        return parameters;
+    }
+
+    private static void sendJson(HttpExchange exchange, int status, Map<String, ?> data) throws IOException {
+        byte[] body = JsonUtil.toJson(data).getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+}
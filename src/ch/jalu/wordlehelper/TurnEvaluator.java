@@ -1,40 +1,58 @@
 package ch.jalu.wordlehelper;
 
+import ch.jalu.wordlehelper.evaluation.CandidateStack;
 import ch.jalu.wordlehelper.evaluation.GameDataCreator;
+import ch.jalu.wordlehelper.evaluation.GameTreeSolver;
 import ch.jalu.wordlehelper.evaluation.LetterFrequencyCalculator;
 import ch.jalu.wordlehelper.evaluation.LetterPermuter;
+import ch.jalu.wordlehelper.evaluation.OpeningBook;
+import ch.jalu.wordlehelper.evaluation.PatternMatrix;
+import ch.jalu.wordlehelper.evaluation.ScoringExecutor;
 import ch.jalu.wordlehelper.evaluation.SplitterWordFinder;
+import ch.jalu.wordlehelper.evaluation.WordBitsetIndex;
 import ch.jalu.wordlehelper.evaluation.WordleTurnEvaluator;
-import ch.jalu.wordlehelper.model.Cell;
+import ch.jalu.wordlehelper.metrics.Counter;
+import ch.jalu.wordlehelper.metrics.Gauge;
+import ch.jalu.wordlehelper.metrics.LatencyHistogram;
+import ch.jalu.wordlehelper.metrics.MetricsRegistry;
 import ch.jalu.wordlehelper.model.Color;
 import ch.jalu.wordlehelper.model.Turn;
+import ch.jalu.wordlehelper.model.WordDictionary;
 import ch.jalu.wordlehelper.model.WordleResultData;
 import ch.jalu.wordlehelper.model.predicate.CharCountPredicate;
 import ch.jalu.wordlehelper.model.predicate.HasExactCountPredicate;
 import ch.jalu.wordlehelper.model.predicate.MinimumCountPredicate;
-import ch.jalu.wordlehelper.util.CharCountContainer;
 import ch.jalu.wordlehelper.util.ConsoleGamePrinter;
 import ch.jalu.wordlehelper.util.FileUtil;
-import ch.jalu.wordlehelper.util.Timer;
+import ch.jalu.wordlehelper.util.TopKeysCollector;
 
 import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.Comparator;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Scanner;
 import java.util.Set;
 import java.util.TreeMap;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Function;
-import java.util.function.Predicate;
-import java.util.stream.Collectors;
+import java.util.function.IntPredicate;
 
+import static ch.jalu.wordlehelper.Constants.MAX_GUESSES;
+import static ch.jalu.wordlehelper.Constants.SCORING_THREADS;
 import static ch.jalu.wordlehelper.Constants.USE_PAST_RESULTS;
 import static ch.jalu.wordlehelper.Constants.WEIGHT_CHANGED_YELLOW;
 import static ch.jalu.wordlehelper.Constants.WEIGHT_MIN_TO_EXACT;
@@ -42,105 +60,356 @@ import static ch.jalu.wordlehelper.Constants.WEIGHT_NEW_EXACT;
 import static ch.jalu.wordlehelper.Constants.WEIGHT_NEW_FULL_EXCLUSION;
 import static ch.jalu.wordlehelper.Constants.WEIGHT_NEW_GREEN_CELL;
 import static ch.jalu.wordlehelper.Constants.WEIGHT_NEW_YELLOW;
+import static ch.jalu.wordlehelper.Constants.WEIGHT_SCALE;
 import static ch.jalu.wordlehelper.Constants.WORD_LENGTH;
 import static ch.jalu.wordlehelper.util.CollectionUtil.combineMaps;
+import static ch.jalu.wordlehelper.util.CollectionUtil.createNormalizer;
 import static ch.jalu.wordlehelper.util.CollectionUtil.groupByNormalizedValueDescending;
-import static ch.jalu.wordlehelper.util.CollectionUtil.retainTopKeys;
+import static ch.jalu.wordlehelper.util.CollectionUtil.max;
 
 public class TurnEvaluator {
 
-    private final GameDataCreator gameDataCreator;
+    /** Largest number of possible words for which the game tree is searched. */
+    private static final int MAX_SOLVER_CANDIDATES = 300;
+
+    /**
+     * Default number of guesses searched per candidate set, which makes the solver's result an approximation;
+     * 0 searches all guesses, which is exact but slow when any word may be guessed.
+     */
+    private static final int DEFAULT_SOLVER_BREADTH = 50;
+
+    /** Maximum time to wait for the running command to stop when the REPL is exited. */
+    private static final long EXIT_TIMEOUT_SECONDS = 5;
+
     private final WordleTurnEvaluator wordleTurnEvaluator;
     private final LetterFrequencyCalculator letterFrequencyCalculator;
 
-    private final Timer timer = new Timer();
+    private final MetricsRegistry metrics = new MetricsRegistry();
+    private final LatencyHistogram parseLatency = metrics.histogram("phase.parse");
+    private final LatencyHistogram printLatency = metrics.histogram("phase.print");
+    private final LatencyHistogram newInfoLatency = metrics.histogram("scorer.newInfo");
+    private final LatencyHistogram infoLatency = metrics.histogram("scorer.info");
+    private final LatencyHistogram entropyLatency = metrics.histogram("scorer.entropy");
+    private final LatencyHistogram remainingWordsLatency = metrics.histogram("scorer.remainingWords");
+    private final LatencyHistogram splitLatency = metrics.histogram("scorer.split");
+    private final LatencyHistogram solverLatency = metrics.histogram("scorer.solver");
+    private final Counter commandCount = metrics.counter("commands");
+    private final Counter commandErrors = metrics.counter("command.errors");
+    private final Counter commandCancellations = metrics.counter("command.cancellations");
+    private final Gauge candidateCount = metrics.gauge("candidates");
+    private final Gauge allocatedBytes = metrics.gauge("command.allocatedBytes");
+    private final WordDictionary dictionary;
     private final List<String> allWords;
-    private final List<Turn> turns = new ArrayList<>();
+    private final PatternMatrix patternMatrix;
+    private final WordBitsetIndex wordIndex;
+    private final CandidateStack candidateStack;
+    private final OpeningBook openingBook;
+    /** Replaced by the command thread ("threads"); volatile as the input thread reads it for help and exit. */
+    private volatile ScoringExecutor scoringExecutor;
+    /** In hard mode, only words that are still possible may be guessed. Only accessed by the command thread. */
+    private boolean hardMode;
+    /** Incremented whenever the game of the REPL changes, which cancels the commands of older versions. */
+    private final AtomicLong gameVersion = new AtomicLong();
+    /** Game version the running command of the REPL was submitted with. */
+    private volatile long runningCommandVersion;
 
     TurnEvaluator(GameDataCreator gameDataCreator, WordleTurnEvaluator wordleTurnEvaluator,
-                  LetterFrequencyCalculator letterFrequencyCalculator, List<String> allWords) {
-        this.gameDataCreator = gameDataCreator;
+                  LetterFrequencyCalculator letterFrequencyCalculator, WordDictionary dictionary,
+                  ScoringExecutor scoringExecutor, OpeningBook openingBook) {
         this.wordleTurnEvaluator = wordleTurnEvaluator;
         this.letterFrequencyCalculator = letterFrequencyCalculator;
-        this.allWords = List.copyOf(allWords);
+        this.dictionary = dictionary;
+        this.allWords = dictionary.getWords();
+        this.patternMatrix = PatternMatrix.build(dictionary, wordleTurnEvaluator);
+        this.scoringExecutor = scoringExecutor;
+        this.wordIndex = WordBitsetIndex.build(dictionary);
+        this.candidateStack = new CandidateStack(gameDataCreator, wordIndex, metrics);
+        this.openingBook = openingBook;
     }
 
     public static void main(String... args) {
-        List<String> allWords = loadWords();
+        WordDictionary dictionary = loadDictionary();
         TurnEvaluator evaluator = new TurnEvaluator(new GameDataCreator(),
-            new WordleTurnEvaluator(), new LetterFrequencyCalculator(), allWords);
+            new WordleTurnEvaluator(), new LetterFrequencyCalculator(), dictionary,
+            ScoringExecutor.withParallelism(SCORING_THREADS), loadOpeningBook(dictionary));
         evaluator.run();
     }
 
+    /**
+     * Loads the opening book from its default location, printing a warning if it is invalid or was built
+     * with another dictionary.
+     *
+     * @param dictionary the dictionary in use
+     * @return the opening book, or null if there is no valid one
+     */
+    static OpeningBook loadOpeningBook(WordDictionary dictionary) {
+        OpeningBook openingBook = OpeningBook.loadIfValid(OpeningBook.DEFAULT_FILE, dictionary.getWords());
+        if (openingBook == null && Files.exists(OpeningBook.DEFAULT_FILE)) {
+            System.err.println("Ignoring " + OpeningBook.DEFAULT_FILE
+                + " as it is invalid or was built with a different dictionary.");
+            System.err.println("Run OpeningBookBuilder to build it again.");
+            System.err.println();
+        }
+        return openingBook;
+    }
+
+    PatternMatrix getPatternMatrix() {
+        return patternMatrix;
+    }
+
+    WordBitsetIndex getWordIndex() {
+        return wordIndex;
+    }
+
+    MetricsRegistry getMetrics() {
+        return metrics;
+    }
+
     private void run() {
         String coloredText = ConsoleGamePrinter.generateConsoleTextForCells(Turn.of("PR?OU!D"));
         System.out.println("Please enter the first turn (e.g. pr?ou!d for " + coloredText + ")");
         System.out.println("Type 'help' for help. (Good starting words: SOARE, ARISE)");
+        if (openingBook != null) {
+            System.out.println("Opening book available for: " + String.join(", ", openingBook.getStarters()));
+        }
 
+        // Commands run one after the other on a background thread, so that new input can cancel an evaluation. The
+        // thread is a daemon so that a command that does not stop in time does not keep the JVM alive after exit
+        ThreadPoolExecutor commandExecutor =
+            new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(), runnable -> {
+                Thread thread = new Thread(runnable, "command");
+                thread.setDaemon(true);
+                return thread;
+            });
         try (Scanner scanner = new Scanner(System.in)) {
+            printPrompt();
             while (true) {
-                System.out.println();
-                System.out.print("Input: ");
                 String line = scanner.nextLine().trim();
                 if ("exit".equals(line) || "stop".equals(line)) {
+                    // Evaluations are cancelled; game changes and settings that were entered before still run
+                    gameVersion.incrementAndGet();
+                    commandExecutor.shutdown();
+                    if (!awaitTermination(commandExecutor)) {
+                        System.out.println("Exiting without waiting for the running command");
+                    }
+                    scoringExecutor.close();
                     break;
                 } else if ("pop".equals(line)) {
-                    if (!turns.isEmpty()) {
-                        turns.remove(turns.size() - 1);
-                    }
-                    ConsoleGamePrinter.printGameToConsole(turns);
+                    submitCommand(commandExecutor, "pop", CommandKind.GAME_CHANGE, () -> {
+                        candidateStack.pop();
+                        ConsoleGamePrinter.printGameToConsole(candidateStack.getTurns());
+                    });
                 } else if ("help".equals(line)) {
                     System.out.println("exit - stop game");
                     System.out.println("pop  - remove last saved turn");
                     System.out.println("new  - clear all turns");
-                    System.out.println("run  - run evaluation again");
+                    System.out.println("run  - run evaluation again (full evaluation, without the opening book)");
                     System.out.println("half - find out which word will most likely halve the set of possible words");
                     System.out.println("list - list all possible patterns with the current known facts");
+                    System.out.println("list words - list only the patterns that a possible word matches");
+                    System.out.println("list count - show the number of patterns without listing them");
+                    System.out.println("entropy - score words by the expected information (in bits) of their result");
+                    System.out.println("solve [guesses] [breadth] [all|possible] [expected|worst] - search the game tree for the best"
+                        + " guess; defaults: guesses left in the game, " + DEFAULT_SOLVER_BREADTH + ", all, expected");
+                    System.out.println("  (breadth: guesses searched per candidate set, approximate; 0 = exhaustive"
+                        + " and exact)");
+                    System.out.println("hard [on|off] - only suggest possible words (hard mode); toggles if omitted");
+                    System.out.println("threads <n> - score with n threads (1 = serial); currently " + scoringExecutor);
+                    System.out.println("stats [json [file]] - show latencies, counters and gauges, or dump them as JSON");
+                    System.out.println("Evaluations run in the background; a new turn, pop or new cancels them.");
+                    printPrompt();
                 } else if ("new".equals(line)) {
-                    turns.clear();
-                    System.out.println("Removed all turns. (Good starting words: SOARE, ARISE)");
+                    submitCommand(commandExecutor, "new", CommandKind.GAME_CHANGE, () -> {
+                        candidateStack.clear();
+                        System.out.println("Removed all turns. (Good starting words: SOARE, ARISE)");
+                    });
                 } else if ("run".equals(line)) {
-                    runAndCatchExceptionWithHelpHint(() -> evaluate(turns));
+                    submitCommand(commandExecutor, "run", CommandKind.EVALUATION, () -> evaluate(false));
                 } else if ("half".equals(line)) {
-                    runAndCatchExceptionWithHelpHint(this::findBestWordsForHalving);
-                } else if ("list".equals(line)) {
-                    runAndCatchExceptionWithHelpHint(this::listAllWordPatterns);
+                    submitCommand(commandExecutor, "half", CommandKind.EVALUATION, this::findBestWordsForHalving);
+                } else if ("list".equals(line) || line.startsWith("list ")) {
+                    String option = line.substring("list".length()).trim();
+                    submitCommand(commandExecutor, "list", CommandKind.EVALUATION, () -> listAllWordPatterns(option));
+                } else if ("solve".equals(line) || line.startsWith("solve ")) {
+                    String options = line.substring("solve".length());
+                    submitCommand(commandExecutor, "solve", CommandKind.EVALUATION, () -> solveGameTree(options));
+                } else if (line.startsWith("threads ")) {
+                    String threads = line.substring("threads ".length());
+                    submitCommand(commandExecutor, "threads", CommandKind.SETTING, () -> changeScoringThreads(threads));
+                } else if ("hard".equals(line) || line.startsWith("hard ")) {
+                    String option = line.substring("hard".length()).trim();
+                    submitCommand(commandExecutor, "hard", CommandKind.SETTING, () -> changeHardMode(option));
+                } else if ("entropy".equals(line)) {
+                    submitCommand(commandExecutor, "entropy", CommandKind.EVALUATION, this::findBestWordsByEntropy);
                 } else if ("try".equals(line)) {
-                    runAndCatchExceptionWithHelpHint(this::findSplittingResult);
+                    submitCommand(commandExecutor, "try", CommandKind.EVALUATION, this::findSplittingResult);
+                } else if ("stats".equals(line) || line.startsWith("stats ")) {
+                    // Not a command of the command executor: it reads only the metrics, which are thread-safe
+                    try {
+                        printStats(line.substring("stats".length()));
+                    } catch (Exception e) {
+                        System.out.println("Error: " + e.getMessage());
+                        System.out.println("Type 'help' for help");
+                    }
+                    printPrompt();
                 } else if (!line.isEmpty()) {
-                    runAndCatchExceptionWithHelpHint(() -> {
-                        turns.add(Turn.of(line));
-                        evaluate(turns);
+                    // Parse right away, so that a mistyped turn does not cancel the running evaluation
+                    long parseStart = System.nanoTime();
+                    Turn turn;
+                    try {
+                        turn = Turn.of(line);
+                    } catch (IllegalArgumentException e) {
+                        System.out.println("Error: " + e.getMessage());
+                        System.out.println("Type 'help' for help");
+                        printPrompt();
+                        continue;
+                    }
+                    parseLatency.recordSince(parseStart);
+                    submitCommand(commandExecutor, "turn", CommandKind.GAME_CHANGE, () -> {
+                        candidateStack.push(turn);
+                        evaluate(true);
                     });
+                } else {
+                    printPrompt();
                 }
             }
+        } finally {
+            commandExecutor.shutdownNow();
+        }
+    }
+
+    /**
+     * Runs the command on the command executor after the commands that were submitted before. A command that changes
+     * the game cancels the evaluations that are running or waiting; it is always run itself, but whatever it
+     * evaluates after changing the game can be cancelled by the next change. Settings are never cancelled.
+     */
+    private void submitCommand(ThreadPoolExecutor commandExecutor, String command, CommandKind kind,
+                               Runnable runnable) {
+        long version = kind == CommandKind.GAME_CHANGE ? gameVersion.incrementAndGet() : gameVersion.get();
+        commandExecutor.execute(() -> {
+            // A setting runs with the current version, so that it is not cancelled by changes submitted after it
+            runningCommandVersion = kind == CommandKind.SETTING ? gameVersion.get() : version;
+            if (kind != CommandKind.EVALUATION || version == gameVersion.get()) {
+                runAndCatchExceptionWithHelpHint(command, runnable);
+            } else {
+                commandCancellations.increment();
+            }
+            if (commandExecutor.getQueue().isEmpty()) {
+                printPrompt();
+            }
+        });
+    }
+
+    /**
+     * Throws a {@link CancellationException} if the game has changed since the running command of the REPL was
+     * submitted. Scorers call this regularly so that an outdated evaluation stops early; when they are not called
+     * from the REPL (e.g. by simulations), the game never changes and nothing is cancelled.
+     */
+    private void checkNotCancelled() {
+        if (runningCommandVersion != gameVersion.get()) {
+            throw new CancellationException("Cancelled by new input");
+        }
+    }
+
+    private static void printPrompt() {
+        System.out.println();
+        System.out.print("Input: ");
+    }
+
+    /**
+     * Waits at most {@link #EXIT_TIMEOUT_SECONDS} for the executor to terminate.
+     *
+     * @return true if the executor terminated, false otherwise
+     */
+    private static boolean awaitTermination(ExecutorService executor) {
+        try {
+            return executor.awaitTermination(EXIT_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
         }
     }
 
-    private static void runAndCatchExceptionWithHelpHint(Runnable runnable) {
+    private void changeHardMode(String option) {
+        hardMode = switch (option) {
+            case "" -> !hardMode;
+            case "on" -> true;
+            case "off" -> false;
+            default -> throw new IllegalArgumentException("Unknown option '" + option + "'");
+        };
+        System.out.println("Hard mode is now " + (hardMode ? "on: only possible words are suggested" : "off"));
+    }
+
+    /**
+     * Returns the words that may be guessed: all words, or in hard mode only the words that are still possible.
+     * Scoring only the candidates in hard mode reduces the work from all words times candidates to candidates squared.
+     *
+     * @return the words to score as guesses
+     */
+    private List<String> getGuessPool() {
+        return hardMode ? candidateStack.getCandidates() : allWords;
+    }
+
+    private void changeScoringThreads(String threadsText) {
+        int threads = Integer.parseInt(threadsText.trim());
+        scoringExecutor.close();
+        scoringExecutor = ScoringExecutor.withParallelism(threads);
+        System.out.println("Scoring is now " + scoringExecutor);
+    }
+
+    /**
+     * Runs the given command and records its latency, the candidate count and the bytes it allocated on this thread.
+     */
+    private void runAndCatchExceptionWithHelpHint(String command, Runnable runnable) {
+        long start = System.nanoTime();
+        long allocatedBefore = MetricsRegistry.getAllocatedBytesOfCurrentThread();
         try {
             runnable.run();
+        } catch (CancellationException e) {
+            commandCancellations.increment();
+            System.out.println();
+            System.out.println("(cancelled)");
         } catch (Exception e) {
+            commandErrors.increment();
             System.out.println("Error: " + e.getMessage());
             System.out.println("Type 'help' for help");
         }
+        metrics.histogram("command." + command).recordSince(start);
+        commandCount.increment();
+        candidateCount.set(candidateStack.getCandidateCount());
+        if (allocatedBefore >= 0) {
+            allocatedBytes.set(MetricsRegistry.getAllocatedBytesOfCurrentThread() - allocatedBefore);
+        }
+    }
+
+    private void printStats(String options) {
+        String[] parts = options.trim().split("\\s+", 2);
+        if (parts[0].isEmpty()) {
+            metrics.print(System.out);
+        } else if ("json".equals(parts[0]) && parts.length == 1) {
+            System.out.println(metrics.toJson());
+        } else if ("json".equals(parts[0])) {
+            Path file = Paths.get(parts[1]);
+            metrics.writeJson(file);
+            System.out.println("Wrote metrics to " + file.toAbsolutePath());
+        } else {
+            throw new IllegalArgumentException("Unknown option '" + parts[0] + "'");
+        }
     }
 
-    private void evaluate(List<Turn> turns) {
-        if (turns.isEmpty()) {
+    private void evaluate(boolean useOpeningBook) {
+        if (candidateStack.isEmpty()) {
             throw new IllegalStateException("Need at least one turn! Use SOARE or ARISE for example");
         }
-        timer.start();
+        long printStart = System.nanoTime();
         System.out.println("Current game:");
-        ConsoleGamePrinter.printGameToConsole(turns);
+        ConsoleGamePrinter.printGameToConsole(candidateStack.getTurns());
 
-        WordleResultData resultData = gameDataCreator.constructResultData(turns);
+        WordleResultData resultData = candidateStack.getResultData();
         System.out.println("Open letters:");
         ConsoleGamePrinter.printLetterInfoToConsole(resultData.knownCharactersByIndex(), resultData.predicatesByChar());
 
-        List<String> possibleWords = allWords.stream()
-            .filter(resultData::matches)
-            .collect(Collectors.toCollection(ArrayList::new));
+        List<String> possibleWords = candidateStack.getCandidates();
         Set<String> possibleWordsSet = Set.copyOf(possibleWords);
 
         System.out.println();
@@ -148,29 +417,30 @@ public class TurnEvaluator {
         if (possibleWords.size() <= 50) {
             System.out.println(" " + String.join(", ", possibleWords));
         }
-        timer.log("Print console & find possible words");
+        printLatency.recordSince(printStart);
 
         if (possibleWords.size() < 2) {
             return;
         }
 
-        System.out.println();
-        System.out.println("Scoring by new information contents:");
-        NewInfoResult newInfoResult = scoreByNewInfo(resultData, possibleWords);
-        timer.log("Calc new info contents");
-        System.out.println("(weighted) " + newInfoResult.weighted());
-        System.out.println("(not weighted): " + newInfoResult.unweighted());
-        System.out.println("Possible results (weighted): " + newMapWithFilteredValues(newInfoResult.weighted(), possibleWordsSet));
-        timer.log("Print new info contents");
+        // The opening book suggests words of the whole dictionary, which may not be played in hard mode
+        OpeningBook.BookLine bookLine = useOpeningBook && openingBook != null && !hardMode
+            ? openingBook.getLine(candidateStack.getTurns())
+            : null;
+        if (bookLine != null) {
+            System.out.println();
+            System.out.println("From opening book (entropy in bits; type 'run' for the full evaluation):");
+            System.out.println(" " + bookLine.guesses());
+            return;
+        }
 
+        // Each section is printed as soon as it is scored, the fastest scorers first
         System.out.println();
         System.out.println("Weighted by potential cell colors:");
         TreeMap<BigDecimal, List<String>> scoredByAllPossibleWords = scoreByInfo(possibleWords, possibleWords);
-        timer.log("Calc new cell color info");
         System.out.println("(all possibilities): " + scoredByAllPossibleWords);
-
         if (USE_PAST_RESULTS) {
-            List<String> pastResults = FileUtil.readWordFileAsList(Paths.get("past_results.txt"));
+            List<String> pastResults = FileUtil.readWordFileAsDictionary(Paths.get("past_results.txt")).getWords();
             List<String> stillPossiblePastResults = pastResults.stream()
                 .filter(possibleWordsSet::contains)
                 .toList();
@@ -178,129 +448,253 @@ public class TurnEvaluator {
             System.out.println("(past results): " + scoredByPossiblePastResults);
             System.out.println("(combined): " + combineMaps(scoredByAllPossibleWords, scoredByPossiblePastResults));
         }
+
+        List<String> guessPool = getGuessPool();
+        System.out.println();
+        System.out.println("Scoring by expected information (entropy in bits):");
+        double[] entropies = calculateEntropies(possibleWords, guessPool);
+        if (hardMode) {
+            System.out.println("(hard mode): " + findTopWordsByEntropy(entropies, guessPool, index -> true, 10));
+        } else {
+            System.out.println("(all words): " + findTopWordsByEntropy(entropies, allWords, index -> true, 10));
+            System.out.println("Possible results: "
+                + findTopWordsByEntropy(entropies, allWords, candidateStack::isCandidate, 10));
+        }
+
+        System.out.println();
+        System.out.println("Scoring by new information contents:");
+        NewInfoResult newInfoResult = scoreByNewInfo(resultData, possibleWords, guessPool);
+        printStart = System.nanoTime();
+        System.out.println("(weighted) " + newInfoResult.weighted());
+        System.out.println("(not weighted): " + newInfoResult.unweighted());
+        if (!hardMode) {
+            System.out.println("Possible results (weighted): "
+                + newMapWithFilteredValues(newInfoResult.weighted(), possibleWordsSet));
+        }
+        printLatency.recordSince(printStart);
     }
 
     private void findBestWordsForHalving() {
-        WordleResultData resultData = gameDataCreator.constructResultData(turns);
-        List<String> possibleWords = allWords.stream()
-            .filter(resultData::matches)
-            .collect(Collectors.toCollection(ArrayList::new)); // Concrete List type so it is guaranteed to implement RandomAccess
+        int candidateCount = candidateStack.getCandidateCount();
 
-        if (possibleWords.size() < 300 && possibleWords.size() > 2) {
+        if (candidateCount < 300 && candidateCount > 2) {
             System.out.println();
             System.out.println("Scoring by word most likely to split in half the set of possible words:");
-            TreeMap<BigDecimal, List<String>> scoreByRemainingWords = scoreByRemainingWords(allWords, possibleWords);
-            retainTopKeys(scoreByRemainingWords, 10);
-            System.out.println(scoreByRemainingWords);
+            System.out.println(scoreByRemainingWords(getGuessPool(), candidateStack.getCandidates(), 10));
         } else {
-            throw new IllegalStateException("Found " + possibleWords.size() + " possible words, which is not within bounds for this action");
+            throw new IllegalStateException("Found " + candidateCount + " possible words, which is not within bounds for this action");
         }
     }
 
-    private void listAllWordPatterns() {
-        WordleResultData resultData = gameDataCreator.constructResultData(turns);
-        LetterPermuter.generateAllCombinations(resultData).forEach(System.out::println);
+    private void findBestWordsByEntropy() {
+        List<String> possibleWords = candidateStack.getCandidates();
+        if (possibleWords.size() < 2) {
+            throw new IllegalStateException("Found " + possibleWords.size() + " possible words, nothing to score");
+        }
+
+        System.out.println();
+        System.out.println("Scoring by expected information (entropy in bits) over " + possibleWords.size() + " possible words:");
+        System.out.println(findTopWordsByEntropy(possibleWords, getGuessPool(), 20));
     }
 
-    private void findSplittingResult() {
-        WordleResultData resultData = gameDataCreator.constructResultData(turns);
-        TreeMap<BigDecimal, List<String>> resultByScore =
-                SplitterWordFinder.split(allWords, resultData, wordleTurnEvaluator, false);
-        System.out.println(resultByScore);
-        if (resultByScore.isEmpty() || resultByScore.firstKey().compareTo(BigDecimal.ZERO) != 0) {
-            resultByScore = SplitterWordFinder.split(allWords, resultData, wordleTurnEvaluator, true);
-            System.out.println("Split results with any word:");
-            System.out.println(resultByScore);
+    private void solveGameTree(String options) {
+        List<String> possibleWords = candidateStack.getCandidates();
+        if (possibleWords.isEmpty() || possibleWords.size() > MAX_SOLVER_CANDIDATES) {
+            throw new IllegalStateException("Found " + possibleWords.size() + " possible words, which is not within bounds for this action");
         }
-    }
 
-    private TreeMap<BigDecimal, List<String>> scoreByInfo(Collection<String> givenWords,
-                                                          Collection<String> referenceWords) {
-        BigDecimal maxScore = BigDecimal.ZERO;
-        Map<String, BigDecimal> scoresByWord = new HashMap<>(givenWords.size());
-        for (String givenWord : givenWords) {
-            BigDecimal score = BigDecimal.ZERO;
-            for (String referenceWord : referenceWords) {
-                score = score.add(wordleTurnEvaluator.calculateScore(givenWord, referenceWord));
+        int maxGuesses = Math.max(1, MAX_GUESSES - candidateStack.getTurns().size());
+        int breadth = DEFAULT_SOLVER_BREADTH;
+        boolean useAllWords = !hardMode;
+        GameTreeSolver.Objective objective = GameTreeSolver.Objective.EXPECTED;
+        int numbersRead = 0;
+        for (String option : options.trim().split("\\s+")) {
+            switch (option) {
+                case "" -> { }
+                case "all" -> {
+                    if (hardMode) {
+                        throw new IllegalStateException("Cannot guess all words in hard mode");
+                    }
+                    useAllWords = true;
+                }
+                case "possible" -> useAllWords = false;
+                case "expected" -> objective = GameTreeSolver.Objective.EXPECTED;
+                case "worst" -> objective = GameTreeSolver.Objective.WORST_CASE;
+                default -> {
+                    if (numbersRead == 0) {
+                        maxGuesses = Integer.parseInt(option);
+                    } else {
+                        breadth = Integer.parseInt(option);
+                    }
+                    ++numbersRead;
+                }
             }
-            scoresByWord.put(givenWord, score);
-            maxScore = maxScore.compareTo(score) > 0 ? maxScore : score;
         }
-        return groupByNormalizedValueDescending(maxScore, scoresByWord);
-    }
 
-    private Predicate<String> createPredicate(String word, String result) {
-        Predicate<Character>[] predicates = new Predicate[WORD_LENGTH];
+        System.out.println();
+        System.out.println("Searching game tree of " + possibleWords.size() + " possible words (" + objective
+            + ", at most " + maxGuesses + " guesses, " + (useAllWords ? "all words" : "possible words")
+            + ", breadth " + (breadth == 0 ? "unlimited" : breadth) + ")");
+        if (breadth > 0) {
+            System.out.println("Approximation: only the " + breadth + " most promising guesses of every candidate set"
+                + " are searched; use breadth 0 for an exhaustive search");
+        }
+        long start = System.nanoTime();
+        GameTreeSolver solver = new GameTreeSolver(patternMatrix, objective,
+            useAllWords ? allWords : List.of(), breadth, this::checkNotCancelled);
+        GameTreeSolver.Solution solution = solver.solve(possibleWords, maxGuesses);
+        solverLatency.recordSince(start);
+        long millis = (System.nanoTime() - start) / 1_000_000;
+        System.out.println("Searched " + solver.getEvaluatedNodes() + " candidate sets ("
+            + solver.getTranspositionTableSize() + " in transposition table) in " + millis + " ms");
+        if (solution == null) {
+            System.out.println("The possible words cannot be told apart within " + maxGuesses + " guesses");
+            return;
+        }
 
-        GameDataCreator.CharCountPredicateBuilder colorCounter = new GameDataCreator.CharCountPredicateBuilder();
-        // todo possible to not go via Cells but immediately have logic in here?
-        List<Cell> cells = wordleTurnEvaluator.evaluateCells(word, result);
-        for (int i = 0; i < cells.size(); i++) {
-            Cell cell = cells.get(i);
-            char character = cell.character();
-            Color color = cell.color();
-            colorCounter.register(character, color);
+        String bestGuess = solver.getWord(solution.guessIndex());
+        if (objective == GameTreeSolver.Objective.EXPECTED) {
+            System.out.println("Best guess: " + bestGuess + " (" + BigDecimal.valueOf(solution.getExpectedGuesses())
+                .setScale(3, RoundingMode.HALF_UP) + " guesses on average)");
+        } else {
+            System.out.println("Best guess: " + bestGuess + " (at most " + solution.cost() + " guesses)");
+        }
 
-            if (cell.color() == Color.GREEN) {
-                predicates[i] = (chr -> chr == character);
-            } else {
-                predicates[i] = (chr -> chr != character);
+        // Show the next guess for every possible result, most likely first
+        int guessIndex = solution.guessIndex();
+        int[] countByPattern = new int[WordleTurnEvaluator.PATTERN_COUNT];
+        for (int resultIndex : patternMatrix.toIndices(possibleWords)) {
+            ++countByPattern[patternMatrix.getPattern(guessIndex, resultIndex)];
+        }
+        TreeMap<Integer, List<Integer>> patternsByCount = new TreeMap<>(Collections.reverseOrder());
+        for (int pattern = 0; pattern < countByPattern.length; ++pattern) {
+            if (countByPattern[pattern] > 0) {
+                patternsByCount.computeIfAbsent(countByPattern[pattern], k -> new ArrayList<>()).add(pattern);
             }
         }
-
-        Map<Character, CharCountPredicate> predicatesByChar = colorCounter.getPredicatesByChar();
-        Predicate<String> predicate = inspectedWord -> {
-            // Interestingly, using CharCountContainer in here instead of a Map directly seems to perform slightly better
-            CharCountContainer charCount = new CharCountContainer();
-            for (int i = 0; i < WORD_LENGTH; ++i) {
-                char chr = inspectedWord.charAt(i);
-                if (!predicates[i].test(chr)) {
-                    return false;
+        for (Map.Entry<Integer, List<Integer>> entry : patternsByCount.entrySet()) {
+            for (int pattern : entry.getValue()) {
+                String cells = ConsoleGamePrinter.generateConsoleTextForCells(
+                    WordleTurnEvaluator.decodeTurn(bestGuess, pattern));
+                if (pattern == WordleTurnEvaluator.ALL_GREEN_PATTERN) {
+                    System.out.println(" " + cells + "  solved");
+                } else {
+                    GameTreeSolver.Solution next = solver.getSolutionAfter(possibleWords, bestGuess, pattern, maxGuesses);
+                    System.out.println(" " + cells + "  " + entry.getKey() + " words, then "
+                        + solver.getWord(next.guessIndex()));
                 }
-                charCount.add(chr);
             }
-            for (Map.Entry<Character, CharCountPredicate> entry : predicatesByChar.entrySet()) {
-                Integer count = charCount.getCount(entry.getKey());
-                if (!entry.getValue().matches(count)) {
-                    return false;
+        }
+    }
+
+    private void listAllWordPatterns(String option) {
+        WordleResultData resultData = candidateStack.getResultData();
+        switch (option) {
+            case "" -> LetterPermuter.streamAllCombinations(resultData).forEach(this::printUnlessCancelled);
+            case "words" -> LetterPermuter.streamMatchingCombinations(resultData, candidateStack.getCandidates())
+                .forEach(this::printUnlessCancelled);
+            case "count" -> System.out.println(LetterPermuter.countAllCombinations(resultData) + " patterns");
+            default -> throw new IllegalArgumentException("Unknown option '" + option + "'");
+        }
+    }
+
+    private void printUnlessCancelled(String line) {
+        checkNotCancelled();
+        System.out.println(line);
+    }
+
+    private void findSplittingResult() {
+        List<String> possibleWords = candidateStack.getCandidates();
+        long start = System.nanoTime();
+        TreeMap<BigDecimal, List<String>> resultByScore =
+                SplitterWordFinder.split(allWords, possibleWords, patternMatrix, false, this::checkNotCancelled);
+        splitLatency.recordSince(start);
+        System.out.println(resultByScore);
+        if (!hardMode && (resultByScore.isEmpty() || resultByScore.firstKey().compareTo(BigDecimal.ZERO) != 0)) {
+            start = System.nanoTime();
+            resultByScore = SplitterWordFinder.split(allWords, possibleWords, patternMatrix, true,
+                this::checkNotCancelled);
+            splitLatency.recordSince(start);
+            System.out.println("Split results with any word:");
+            System.out.println(resultByScore);
+        }
+    }
+
+    TreeMap<BigDecimal, List<String>> scoreByInfo(List<String> givenWords,
+                                                  Collection<String> referenceWords) {
+        long start = System.nanoTime();
+        int[] givenIndices = patternMatrix.toIndices(givenWords);
+        int[] referenceIndices = patternMatrix.toIndices(referenceWords);
+
+        long[] scores = new long[givenIndices.length];
+        scoringExecutor.forEachRange(givenIndices.length, (from, to) -> {
+            for (int i = from; i < to; ++i) {
+                checkNotCancelled();
+                long score = 0;
+                for (int referenceIndex : referenceIndices) {
+                    score += wordleTurnEvaluator.calculateScore(patternMatrix.getPattern(givenIndices[i], referenceIndex));
                 }
+                scores[i] = score;
             }
-            return true;
-        };
-        return predicate;
+        });
+        TreeMap<BigDecimal, List<String>> result =
+            groupByNormalizedValueDescending(givenWords, scores, WordleTurnEvaluator.SCORE_SCALE);
+        infoLatency.recordSince(start);
+        return result;
     }
 
-    private NewInfoResult scoreByNewInfo(WordleResultData wordleResultData, List<String> possibleWords) {
-        Timer timer = new Timer(" > newInfo ");
-        Map<Character, BigDecimal> frequencyByChar =
-            letterFrequencyCalculator.calculateFrequencyOfLetters(possibleWords, wordleResultData.predicatesByChar());
-        timer.log("Calc frequency");
+    NewInfoResult scoreByNewInfo(WordleResultData wordleResultData, List<String> possibleWords) {
+        return scoreByNewInfo(wordleResultData, possibleWords, allWords);
+    }
 
-        Map<String, BigDecimal> scoresByWord = new HashMap<>();
-        Map<String, BigDecimal> weightedScoresByWord = new HashMap<>();
+    /**
+     * Scores the given guesses by the new information they reveal about the possible words.
+     *
+     * @param wordleResultData the current game state
+     * @param possibleWords the words that are still possible
+     * @param guessWords the words to score
+     * @return the guesses by unweighted and weighted score
+     */
+    NewInfoResult scoreByNewInfo(WordleResultData wordleResultData, List<String> possibleWords,
+                                 List<String> guessWords) {
+        long start = System.nanoTime();
+        int[] possibleWordIds = dictionary.toIds(possibleWords);
+        double[] frequencyByLetter =
+            letterFrequencyCalculator.calculateFrequencyOfLetters(dictionary, possibleWordIds,
+                wordleResultData.predicatesByChar());
+
+        NewInfoContext context = new NewInfoContext(wordleResultData, frequencyByLetter);
+        int[] guessIds = dictionary.toIds(guessWords);
+        long[] scores = new long[guessIds.length];
+        double[] weightedScores = new double[guessIds.length];
+
+        scoringExecutor.forEachRange(guessIds.length, (from, to) -> {
+            int[] countByPattern = new int[WordleTurnEvaluator.PATTERN_COUNT];
+            NewInfoScore score = new NewInfoScore();
+            for (int g = from; g < to; ++g) {
+                checkNotCancelled();
+                final int playIndex = guessIds[g];
+                Arrays.fill(countByPattern, 0);
+                for (int resultIndex : possibleWordIds) {
+                    ++countByPattern[patternMatrix.getPattern(playIndex, resultIndex)];
+                }
 
-        for (String potentialNextPlay : allWords) {
-            BigDecimal score = BigDecimal.ZERO;
-            BigDecimal weightedScore = BigDecimal.ZERO;
-            for (String potentialResult : possibleWords) {
-                BigDecimal[] scores = evaluateNewInformation(wordleResultData, potentialNextPlay, potentialResult, frequencyByChar);
-                score = score.add(scores[0]);
-                weightedScore = weightedScore.add(scores[1]);
+                // The new information only depends on the pattern, so each distinct pattern is evaluated once
+                score.reset();
+                for (int pattern = 0; pattern < countByPattern.length; ++pattern) {
+                    if (countByPattern[pattern] > 0) {
+                        evaluateNewInformation(context, playIndex, pattern, countByPattern[pattern], score);
+                    }
+                }
+                scores[g] = score.score;
+                weightedScores[g] = score.weightedScore;
             }
-            scoresByWord.put(potentialNextPlay, score);
-            weightedScoresByWord.put(potentialNextPlay, weightedScore);
-        }
-        timer.log("Eval of words");
-
-        BigDecimal maxScore = scoresByWord.values().stream()
-            .max(Comparator.comparing(v -> v))
-            .orElse(null);
-        BigDecimal maxWeightedScore = weightedScoresByWord.values().stream()
-            .max(Comparator.comparing(Function.identity()))
-            .orElse(null);
+        });
 
-        return new NewInfoResult(groupByNormalizedValueDescending(maxScore, scoresByWord),
-            groupByNormalizedValueDescending(maxWeightedScore, weightedScoresByWord));
+        NewInfoResult result = new NewInfoResult(groupByNormalizedValueDescending(guessWords, scores, WEIGHT_SCALE),
+            groupByNormalizedValueDescending(max(weightedScores), guessWords, weightedScores));
+        newInfoLatency.recordSince(start);
+        return result;
     }
 
     private TreeMap<BigDecimal, List<String>> newMapWithFilteredValues(Map<BigDecimal, List<String>> map,
@@ -315,101 +709,226 @@ public class TurnEvaluator {
         return result;
     }
 
-    private BigDecimal[] evaluateNewInformation(WordleResultData resultData, String word, String result,
-                                                Map<Character, BigDecimal> frequencyByChar) {
-        List<Cell> cells = wordleTurnEvaluator.evaluateCells(word, result);
-        GameDataCreator.CharCountPredicateBuilder colorCounter = new GameDataCreator.CharCountPredicateBuilder();
-        for (Cell cell : cells) {
-            colorCounter.register(cell.character(), cell.color());
-        }
-
-        BigDecimal score = BigDecimal.ZERO;
-        BigDecimal scoreWeighted = BigDecimal.ZERO;
-        for (Map.Entry<Character, CharCountPredicate> entry : colorCounter.getPredicatesByChar().entrySet()) {
-            Character character = entry.getKey();
-            CharCountPredicate newPredicate = entry.getValue();
-            CharCountPredicate oldPredicate = resultData.predicatesByChar().get(character);
+    /**
+     * Adds the score of the new information that the given pattern yields for the played word to the accumulator,
+     * multiplied by the number of possible results that produce the pattern.
+     */
+    private void evaluateNewInformation(NewInfoContext context, int wordId, int pattern, int count,
+                                        NewInfoScore accumulator) {
+        long score = 0;
+        double scoreWeighted = 0;
+        int packedWord = dictionary.getPackedWord(wordId);
+        // Later cells only need to be checked for the same letter if the word has a letter multiple times
+        boolean hasDuplicateLetters = dictionary.hasDuplicateLetters(wordId);
+        int handledLetters = 0;
+        for (int i = 0; i < WORD_LENGTH; ++i) {
+            int letter = WordDictionary.getLetter(packedWord, i);
+            if ((handledLetters & (1 << letter)) != 0) {
+                continue; // letter already handled
+            }
+            handledLetters |= 1 << letter;
+
+            // Equivalent to registering all cells of the letter with a CharCountPredicateBuilder
+            int nonGrayCount = 0;
+            boolean hasGray = false;
+            int lastIndexToCheck = hasDuplicateLetters ? WORD_LENGTH - 1 : i;
+            for (int j = i; j <= lastIndexToCheck; ++j) {
+                if (WordDictionary.getLetter(packedWord, j) == letter) {
+                    if (WordleTurnEvaluator.getColor(pattern, j) == Color.GRAY) {
+                        hasGray = true;
+                    } else {
+                        ++nonGrayCount;
+                    }
+                }
+            }
+            CharCountPredicate newPredicate = hasGray
+                ? HasExactCountPredicate.of(nonGrayCount)
+                : MinimumCountPredicate.of(nonGrayCount);
+            CharCountPredicate oldPredicate = context.oldPredicatesByLetter[letter];
             if (newPredicate != oldPredicate) {
-                BigDecimal charFrequency = frequencyByChar.getOrDefault(character, BigDecimal.ZERO);
+                double charFrequency = context.frequencyByLetter[letter];
                 if (newPredicate instanceof HasExactCountPredicate newExactPredicate) {
                     if (newExactPredicate.getRequiredCount() == 0) {
-                        score = score.add(WEIGHT_NEW_FULL_EXCLUSION);
-                        scoreWeighted = scoreWeighted.add(WEIGHT_NEW_FULL_EXCLUSION.multiply(charFrequency));
+                        score += WEIGHT_NEW_FULL_EXCLUSION;
+                        scoreWeighted += WEIGHT_NEW_FULL_EXCLUSION * charFrequency;
                     } else if (oldPredicate instanceof MinimumCountPredicate) {
-                        score = score.add(WEIGHT_MIN_TO_EXACT);
-                        scoreWeighted = scoreWeighted.add(WEIGHT_MIN_TO_EXACT.multiply(charFrequency));
+                        score += WEIGHT_MIN_TO_EXACT;
+                        scoreWeighted += WEIGHT_MIN_TO_EXACT * charFrequency;
                     } else {
-                        score = score.add(WEIGHT_NEW_EXACT);
-                        scoreWeighted = scoreWeighted.add(WEIGHT_NEW_EXACT.multiply(charFrequency));
+                        score += WEIGHT_NEW_EXACT;
+                        scoreWeighted += WEIGHT_NEW_EXACT * charFrequency;
                     }
 
                 } else if (newPredicate instanceof MinimumCountPredicate newMinPredicate) {
                     if (oldPredicate instanceof MinimumCountPredicate oldMinPredicate) {
                         if (oldMinPredicate.getMinimumCount() < newMinPredicate.getMinimumCount()) {
-                            BigDecimal difference =
-                                BigDecimal.valueOf(newMinPredicate.getMinimumCount() - oldMinPredicate.getMinimumCount());
-                            score = score.add(WEIGHT_CHANGED_YELLOW).multiply(difference);
-                            scoreWeighted = scoreWeighted.add(WEIGHT_CHANGED_YELLOW.multiply(charFrequency).multiply(difference));
+                            int difference = newMinPredicate.getMinimumCount() - oldMinPredicate.getMinimumCount();
+                            score += WEIGHT_CHANGED_YELLOW * difference;
+                            scoreWeighted += WEIGHT_CHANGED_YELLOW * charFrequency * difference;
                         }
                     } else if (oldPredicate == null) {
-                        score = score.add(WEIGHT_NEW_YELLOW);
-                        scoreWeighted = scoreWeighted.add(WEIGHT_NEW_YELLOW.multiply(charFrequency));
+                        score += WEIGHT_NEW_YELLOW;
+                        scoreWeighted += WEIGHT_NEW_YELLOW * charFrequency;
                     }
                 }
             }
         }
 
         int newGreenCells = 0;
-        for (int i = 0; i < cells.size(); i++) {
-            Cell cell = cells.get(i);
-            if (cell.color() == Color.GREEN && resultData.knownCharactersByIndex()[i] == null) {
+        for (int i = 0; i < WORD_LENGTH; i++) {
+            if (WordleTurnEvaluator.getColor(pattern, i) == Color.GREEN && !context.knownPositions[i]) {
                 ++newGreenCells;
             }
         }
-        score = score.add(WEIGHT_NEW_GREEN_CELL.multiply(BigDecimal.valueOf(newGreenCells)));
-        scoreWeighted = scoreWeighted.add(WEIGHT_NEW_GREEN_CELL.multiply(BigDecimal.valueOf(newGreenCells)));
+        score += WEIGHT_NEW_GREEN_CELL * newGreenCells;
+        scoreWeighted += WEIGHT_NEW_GREEN_CELL * newGreenCells;
 
-        return new BigDecimal[]{
-            score, scoreWeighted
-        };
+        accumulator.score += score * count;
+        accumulator.weightedScore += scoreWeighted * count;
+    }
+
+    /**
+     * Returns the words with the highest entropy (see {@link #calculateEntropies}) without creating a score entry for
+     * every word.
+     *
+     * @param possibleWords the words that are still possible
+     * @param nBestToKeep number of distinct scores to return
+     * @return words of the best scores, highest entropy first
+     */
+    TreeMap<BigDecimal, List<String>> findTopWordsByEntropy(List<String> possibleWords, int nBestToKeep) {
+        return findTopWordsByEntropy(possibleWords, allWords, nBestToKeep);
     }
 
-    private TreeMap<BigDecimal, List<String>> scoreByRemainingWords(Collection<String> allWords,
-                                                                    List<String> possibleWords) {
+    /**
+     * Returns the guesses with the highest entropy, like {@link #findTopWordsByEntropy(List, int)}, among the given
+     * guesses only.
+     *
+     * @param possibleWords the words that are still possible
+     * @param guessWords the words to score
+     * @param nBestToKeep number of distinct scores to return
+     * @return words of the best scores, highest entropy first
+     */
+    TreeMap<BigDecimal, List<String>> findTopWordsByEntropy(List<String> possibleWords, List<String> guessWords,
+                                                            int nBestToKeep) {
+        return findTopWordsByEntropy(calculateEntropies(possibleWords, guessWords), guessWords, index -> true,
+            nBestToKeep);
+    }
+
+    private TreeMap<BigDecimal, List<String>> findTopWordsByEntropy(double[] entropies, List<String> guessWords,
+                                                                    IntPredicate indexFilter, int nBestToKeep) {
+        TopKeysCollector<BigDecimal, String> collector = TopKeysCollector.highest(nBestToKeep);
+        for (int g = 0; g < entropies.length; ++g) {
+            if (indexFilter.test(g)) {
+                collector.add(toEntropyScore(entropies[g]), guessWords.get(g));
+            }
+        }
+        return collector.getBackingMap();
+    }
+
+    /**
+     * Scores all words by the Shannon entropy of the patterns they produce over the possible words, i.e. by the
+     * expected information (in bits) that playing the word yields.
+     *
+     * @param possibleWords the words that are still possible
+     * @return the entropy in bits of each word, by word id
+     */
+    double[] calculateEntropies(List<String> possibleWords) {
+        return calculateEntropies(possibleWords, allWords);
+    }
+
+    /**
+     * Scores the given guesses by their entropy like {@link #calculateEntropies(List)}.
+     *
+     * @param possibleWords the words that are still possible
+     * @param guessWords the words to score
+     * @return the entropy in bits of each guess, by index in the guess words
+     */
+    double[] calculateEntropies(List<String> possibleWords, List<String> guessWords) {
+        long start = System.nanoTime();
+        int[] possibleWordIndices = dictionary.toIds(possibleWords);
+        int[] guessIds = dictionary.toIds(guessWords);
+        final double total = possibleWordIndices.length;
+        final double log2Total = Math.log(total) / Math.log(2);
+
+        double[] entropies = new double[guessIds.length];
+        scoringExecutor.forEachRange(guessIds.length, (from, to) -> {
+            int[] countByPattern = new int[WordleTurnEvaluator.PATTERN_COUNT];
+            for (int g = from; g < to; ++g) {
+                checkNotCancelled();
+                final int playIndex = guessIds[g];
+                Arrays.fill(countByPattern, 0);
+                for (int resultIndex : possibleWordIndices) {
+                    ++countByPattern[patternMatrix.getPattern(playIndex, resultIndex)];
+                }
+
+                // H = -sum(p * log2(p)) with p = count / total, i.e. log2(total) - sum(count * log2(count)) / total
+                double weightedLogSum = 0;
+                for (int count : countByPattern) {
+                    if (count > 1) {
+                        weightedLogSum += count * Math.log(count);
+                    }
+                }
+                entropies[g] = log2Total - weightedLogSum / Math.log(2) / total;
+            }
+        });
+        entropyLatency.recordSince(start);
+        return entropies;
+    }
+
+    static BigDecimal toEntropyScore(double entropy) {
+        return BigDecimal.valueOf(entropy).setScale(3, RoundingMode.HALF_UP);
+    }
+
+    TreeMap<BigDecimal, List<String>> scoreByRemainingWords(List<String> wordsToPlay,
+                                                            List<String> possibleWords, int nBestToKeep) {
         /// todo skip the words of the loop and the previous words...
-        Map<String, BigDecimal> scoresByWord = new HashMap<>();
+        long start = System.nanoTime();
         final int totalPossibleWords = possibleWords.size();
         final double halfPossibleWords = possibleWords.size() / 2.0;
-        int processedWords = 0;
-        for (String potentialNextPlay : allWords) {
-            double differencesTotal = 0.0;
-            int wordMatches;
-            for (int i = 0; i < totalPossibleWords; ++i) {
-                String potentialResult = possibleWords.get(i);
-                wordMatches = 0;
-                Predicate<String> matchesResultPred = createPredicate(potentialNextPlay, potentialResult);
-
-                for (int j = 0; j < totalPossibleWords; ++j) {
-                    if (matchesResultPred.test(possibleWords.get(j))) {
-                        ++wordMatches;
+        final int[] playIndices = patternMatrix.toIndices(wordsToPlay);
+        final int[] possibleWordIndices = patternMatrix.toIndices(possibleWords);
+        final Function<BigDecimal, BigDecimal> normalizer = createNormalizer(BigDecimal.valueOf(halfPossibleWords));
+        final Map<Integer, TopKeysCollector<BigDecimal, String>> collectorsByRange = new ConcurrentSkipListMap<>();
+        final AtomicInteger processedWords = new AtomicInteger();
+
+        scoringExecutor.forEachRange(playIndices.length, (from, to) -> {
+            TopKeysCollector<BigDecimal, String> collector = TopKeysCollector.highest(nBestToKeep);
+            for (int p = from; p < to; ++p) {
+                checkNotCancelled();
+                final int playIndex = playIndices[p];
+                double differencesTotal = 0.0;
+                int wordMatches;
+                for (int i = 0; i < totalPossibleWords; ++i) {
+                    // A word remains possible if it produces the same pattern as the assumed result
+                    int resultPattern = patternMatrix.getPattern(playIndex, possibleWordIndices[i]);
+                    wordMatches = 0;
+
+                    for (int j = 0; j < totalPossibleWords; ++j) {
+                        if (patternMatrix.getPattern(playIndex, possibleWordIndices[j]) == resultPattern) {
+                            ++wordMatches;
+                        }
                     }
+                    differencesTotal += Math.abs(wordMatches - halfPossibleWords);
                 }
-                differencesTotal += Math.abs(wordMatches - halfPossibleWords);
-            }
+                double score = halfPossibleWords - (differencesTotal / totalPossibleWords);
+                collector.add(normalizer.apply(BigDecimal.valueOf(score)), wordsToPlay.get(p));
 
-            double score = halfPossibleWords - (differencesTotal / totalPossibleWords);
-            scoresByWord.put(potentialNextPlay, BigDecimal.valueOf(score));
-
-            ++processedWords;
-            if ((processedWords & 127) == 127) {
-                System.out.print(". ");
+                if ((processedWords.incrementAndGet() & 127) == 127) {
+                    System.out.print(". ");
+                }
             }
-        }
+            collectorsByRange.put(from, collector);
+        });
         System.out.println();
-        return groupByNormalizedValueDescending(BigDecimal.valueOf(halfPossibleWords), scoresByWord);
+
+        // Merge in the order of the ranges so that words with the same score keep their order
+        TopKeysCollector<BigDecimal, String> result = TopKeysCollector.highest(nBestToKeep);
+        collectorsByRange.values().forEach(result::merge);
+        remainingWordsLatency.recordSince(start);
+        return result.getBackingMap();
     }
 
-    private static List<String> loadWords() {
+    static WordDictionary loadDictionary() {
         Path wordsFile = Paths.get("all_words.txt");
         if (!Files.exists(wordsFile)) {
             System.err.println("Did not find all_words.txt; falling back to words.txt.");
@@ -418,10 +937,59 @@ public class TurnEvaluator {
 
             wordsFile = Paths.get("words.txt");
         }
-        return FileUtil.readWordFileAsList(wordsFile);
+        return FileUtil.readWordFileAsDictionary(wordsFile);
+    }
+
+    /**
+     * Data of the current game state in a format that can be accessed efficiently by
+     * {@link #evaluateNewInformation}.
+     */
+    private static final class NewInfoContext {
+
+        private final CharCountPredicate[] oldPredicatesByLetter = new CharCountPredicate[26];
+        private final boolean[] knownPositions = new boolean[WORD_LENGTH];
+        private final double[] frequencyByLetter;
+
+        NewInfoContext(WordleResultData resultData, double[] frequencyByLetter) {
+            resultData.predicatesByChar().forEach((chr, predicate) -> oldPredicatesByLetter[chr - 'A'] = predicate);
+            for (int i = 0; i < WORD_LENGTH; ++i) {
+                knownPositions[i] = resultData.knownCharactersByIndex()[i] != null;
+            }
+            this.frequencyByLetter = frequencyByLetter;
+        }
+    }
+
+    /**
+     * Accumulates the new information score of a word.
+     */
+    private static final class NewInfoScore {
+
+        private long score;
+        private double weightedScore;
+
+        void reset() {
+            score = 0;
+            weightedScore = 0;
+        }
+    }
+
+    /**
+     * Kind of a command of the REPL, which determines whether the command can be cancelled.
+     */
+    private enum CommandKind {
+
+        /** Evaluates the game; skipped or cancelled if the game changes. */
+        EVALUATION,
+
+        /** Changes the game, which cancels the evaluations; always run. */
+        GAME_CHANGE,
+
+        /** Changes a setting of the evaluations; always run. */
+        SETTING
+
     }
 
-    private record NewInfoResult(TreeMap<BigDecimal, List<String>> unweighted,
-                                 TreeMap<BigDecimal, List<String>> weighted) {
+    record NewInfoResult(TreeMap<BigDecimal, List<String>> unweighted,
+                         TreeMap<BigDecimal, List<String>> weighted) {
     }
 }
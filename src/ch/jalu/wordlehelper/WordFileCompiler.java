@@ -0,0 +1,47 @@
+package ch.jalu.wordlehelper;
+
+import ch.jalu.wordlehelper.util.CompiledWordFile;
+import ch.jalu.wordlehelper.util.StreamingWordLoader;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Compiles word files into the binary format of {@link CompiledWordFile}, which is then loaded on startup instead of
+ * the text file. A compiled file is ignored as soon as its text file changes, so this needs to be run again after
+ * editing a word file.
+ * <p>
+ * Arguments: the word files to compile (default: all_words.txt, words.txt and past_results.txt, if they exist).
+ */
+public class WordFileCompiler {
+
+    public static void main(String... args) {
+        List<Path> wordFiles = args.length > 0
+            ? Arrays.stream(args).map(Paths::get).toList()
+            : List.of(Paths.get("all_words.txt"), Paths.get("words.txt"), Paths.get("past_results.txt"));
+
+        for (Path wordFile : wordFiles) {
+            if (!Files.exists(wordFile)) {
+                if (args.length > 0) {
+                    throw new IllegalArgumentException("File '" + wordFile + "' does not exist");
+                }
+                System.out.println("Skipping " + wordFile + " as it does not exist");
+                continue;
+            }
+            long start = System.nanoTime();
+            StreamingWordLoader.Result result = StreamingWordLoader.load(wordFile);
+            Path compiledFile = CompiledWordFile.compile(wordFile, result.dictionary());
+            System.out.println("Compiled " + wordFile + " to " + compiledFile + " in "
+                + (System.nanoTime() - start) / 1_000_000 + " ms: " + result.report());
+            for (StreamingWordLoader.RejectedLine rejectedLine : result.report().rejectedSamples()) {
+                System.out.println(" Rejected line " + rejectedLine);
+            }
+            if (result.report().rejected() > result.report().rejectedSamples().size()) {
+                System.out.println(" ...");
+            }
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package ch.jalu.wordlehelper.benchmark;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Minimal micro-benchmark harness: runs an operation for a number of warmup and measurement iterations and prints
+ * the average time per operation, the bytes allocated per operation and the garbage collections that happened
+ * while measuring.
+ * <p>
+ * Allocations are measured for the current thread only, so operations should run on the calling thread.
+ */
+public class BenchmarkRunner {
+
+    private static volatile Object blackhole;
+
+    private final int warmupIterations;
+    private final int measurementIterations;
+    private final long iterationNanos;
+    private final com.sun.management.ThreadMXBean threadBean;
+    private final List<GarbageCollectorMXBean> gcBeans;
+
+    /**
+     * Constructor.
+     *
+     * @param warmupIterations number of iterations to run before measuring
+     * @param measurementIterations number of measured iterations
+     * @param iterationMillis minimum duration of each iteration
+     */
+    public BenchmarkRunner(int warmupIterations, int measurementIterations, long iterationMillis) {
+        this.warmupIterations = warmupIterations;
+        this.measurementIterations = measurementIterations;
+        this.iterationNanos = iterationMillis * 1_000_000L;
+        this.threadBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        this.gcBeans = ManagementFactory.getGarbageCollectorMXBeans();
+        threadBean.setThreadAllocatedMemoryEnabled(true);
+    }
+
+    public static void printHeader() {
+        System.out.printf("%-44s %-22s %14s %10s %16s %10s%n",
+            "Benchmark", "Params", "us/op", "error", "alloc B/op", "gc count");
+    }
+
+    /**
+     * Measures the given operation and prints the result. The value returned by the operation is consumed so that
+     * the JIT cannot eliminate the computation.
+     *
+     * @param name the name of the benchmark
+     * @param params description of the parameters (e.g. dictionary size)
+     * @param operation the operation to measure
+     */
+    public void run(String name, String params, Supplier<?> operation) {
+        for (int i = 0; i < warmupIterations; ++i) {
+            runIteration(operation);
+        }
+
+        double[] nanosPerOp = new double[measurementIterations];
+        long totalOps = 0;
+        long gcCountBefore = getGcCount();
+        long allocatedBefore = getAllocatedBytes();
+        for (int i = 0; i < measurementIterations; ++i) {
+            long[] result = runIteration(operation);
+            nanosPerOp[i] = (double) result[0] / result[1];
+            totalOps += result[1];
+        }
+        long allocatedBytes = getAllocatedBytes() - allocatedBefore;
+        long gcCount = getGcCount() - gcCountBefore;
+
+        double mean = 0;
+        for (double value : nanosPerOp) {
+            mean += value;
+        }
+        mean /= nanosPerOp.length;
+        double variance = 0;
+        for (double value : nanosPerOp) {
+            variance += (value - mean) * (value - mean);
+        }
+        double error = nanosPerOp.length > 1 ? Math.sqrt(variance / (nanosPerOp.length - 1)) : 0;
+
+        System.out.printf("%-44s %-22s %14.3f %10.3f %16d %10d%n",
+            name, params, mean / 1000, error / 1000, allocatedBytes / totalOps, gcCount);
+    }
+
+    /**
+     * Prints that the given benchmark was skipped.
+     *
+     * @param name the name of the benchmark
+     * @param params description of the parameters
+     * @param reason the reason it was skipped
+     */
+    public void skip(String name, String params, String reason) {
+        System.out.printf("%-44s %-22s %s%n", name, params, "skipped: " + reason);
+    }
+
+    /**
+     * Runs the operation until the iteration time has passed.
+     *
+     * @return array with the elapsed nanoseconds and the number of operations
+     */
+    private long[] runIteration(Supplier<?> operation) {
+        long start = System.nanoTime();
+        long ops = 0;
+        long elapsed;
+        do {
+            blackhole = operation.get();
+            ++ops;
+            elapsed = System.nanoTime() - start;
+        } while (elapsed < iterationNanos);
+        return new long[]{ elapsed, ops };
+    }
+
+    private long getAllocatedBytes() {
+        return threadBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    private long getGcCount() {
+        long count = 0;
+        for (GarbageCollectorMXBean gcBean : gcBeans) {
+            count += Math.max(0, gcBean.getCollectionCount());
+        }
+        return count;
+    }
+}
@@ -0,0 +1,60 @@
+package ch.jalu.wordlehelper.benchmark;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static ch.jalu.wordlehelper.Constants.WORD_LENGTH;
+
+/**
+ * Generates dictionaries of random, distinct words for benchmarks. Letters are drawn according to their frequency in
+ * English so that the words share letters like a real dictionary does.
+ */
+public final class SyntheticWords {
+
+    /** Approximate frequency of each letter A-Z in English text, in tenths of a percent. */
+    private static final int[] LETTER_WEIGHTS = {
+        82, 15, 28, 43, 127, 22, 20, 61, 70, 2, 8, 40, 24, 67, 75, 19, 1, 60, 63, 91, 28, 10, 24, 2, 20, 1
+    };
+
+    private SyntheticWords() {
+    }
+
+    /**
+     * Creates a list of distinct words.
+     *
+     * @param size the number of words to create
+     * @param seed the seed for the random generator
+     * @return the words
+     */
+    public static List<String> generate(int size, long seed) {
+        int totalWeight = 0;
+        for (int weight : LETTER_WEIGHTS) {
+            totalWeight += weight;
+        }
+
+        Random random = new Random(seed);
+        Set<String> words = new LinkedHashSet<>(size * 2);
+        char[] chars = new char[WORD_LENGTH];
+        while (words.size() < size) {
+            for (int i = 0; i < WORD_LENGTH; ++i) {
+                chars[i] = drawLetter(random.nextInt(totalWeight));
+            }
+            words.add(new String(chars));
+        }
+        return new ArrayList<>(words);
+    }
+
+    private static char drawLetter(int value) {
+        int remaining = value;
+        for (int letter = 0; letter < LETTER_WEIGHTS.length; ++letter) {
+            remaining -= LETTER_WEIGHTS[letter];
+            if (remaining < 0) {
+                return (char) ('A' + letter);
+            }
+        }
+        throw new IllegalStateException("Value " + value + " exceeds the total weight");
+    }
+}
@@ -0,0 +1,160 @@
+package ch.jalu.wordlehelper.evaluation;
+
+import ch.jalu.wordlehelper.metrics.LatencyHistogram;
+import ch.jalu.wordlehelper.metrics.MetricsRegistry;
+import ch.jalu.wordlehelper.model.Turn;
+import ch.jalu.wordlehelper.model.WordleResultData;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Keeps the played turns along with the words that are still possible after each turn. The candidates are kept as
+ * bitset of the {@link WordBitsetIndex} of all words; the list of candidate words is only created when it is
+ * requested. A new turn only checks the words that were possible after the previous turn against the constraints of
+ * the new turn, and removing the last turn restores the previous snapshot without filtering anything.
+ */
+public class CandidateStack {
+
+    private final GameDataCreator gameDataCreator;
+    private final WordBitsetIndex index;
+    /** Latency of building the result data and of filtering the words, or null if no metrics are recorded. */
+    private final LatencyHistogram constraintsLatency;
+    private final LatencyHistogram filterLatency;
+    private final Snapshot root;
+    private final List<Turn> turns = new ArrayList<>();
+    private final List<Snapshot> snapshots = new ArrayList<>();
+
+    /**
+     * Constructor.
+     *
+     * @param gameDataCreator game data creator to build the result data with
+     * @param index index of all words (candidates when no turn has been played)
+     */
+    public CandidateStack(GameDataCreator gameDataCreator, WordBitsetIndex index) {
+        this(gameDataCreator, index, null);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param gameDataCreator game data creator to build the result data with
+     * @param index index of all words (candidates when no turn has been played)
+     * @param metrics registry to record the latency of pushing turns in (nullable)
+     */
+    public CandidateStack(GameDataCreator gameDataCreator, WordBitsetIndex index, MetricsRegistry metrics) {
+        this.gameDataCreator = gameDataCreator;
+        this.index = index;
+        this.constraintsLatency = metrics == null ? null : metrics.histogram("phase.constraints");
+        this.filterLatency = metrics == null ? null : metrics.histogram("phase.filter");
+        WordleResultData rootResultData = gameDataCreator.constructResultData(List.of());
+        this.root = new Snapshot(rootResultData, index.filter(rootResultData));
+        root.candidates = index.getDictionary().getWords();
+    }
+
+    /**
+     * Adds the given turn and filters the candidates of the previous turn with it.
+     *
+     * @param turn the turn to add
+     */
+    public void push(Turn turn) {
+        Snapshot previous = getCurrentSnapshot();
+        turns.add(turn);
+        long start = System.nanoTime();
+        WordleResultData turnResultData = gameDataCreator.constructResultData(List.of(turn));
+        WordleResultData resultData = gameDataCreator.merge(previous.resultData, turnResultData);
+        long constraintsEnd = System.nanoTime();
+        long[] bitset = index.filter(turnResultData, previous.bitset);
+        if (constraintsLatency != null) {
+            constraintsLatency.record(constraintsEnd - start);
+            filterLatency.recordSince(constraintsEnd);
+        }
+        snapshots.add(new Snapshot(resultData, bitset));
+    }
+
+    /**
+     * Removes the last turn, if any, and restores the candidates from before it was played.
+     *
+     * @return true if a turn was removed, false if there were no turns
+     */
+    public boolean pop() {
+        if (turns.isEmpty()) {
+            return false;
+        }
+        turns.remove(turns.size() - 1);
+        snapshots.remove(snapshots.size() - 1);
+        return true;
+    }
+
+    /**
+     * Removes all turns.
+     */
+    public void clear() {
+        turns.clear();
+        snapshots.clear();
+    }
+
+    public boolean isEmpty() {
+        return turns.isEmpty();
+    }
+
+    public List<Turn> getTurns() {
+        return Collections.unmodifiableList(turns);
+    }
+
+    /**
+     * @return the result data of all turns
+     */
+    public WordleResultData getResultData() {
+        return getCurrentSnapshot().resultData;
+    }
+
+    /**
+     * @return the words that are possible with all turns (immutable, random access)
+     */
+    public List<String> getCandidates() {
+        Snapshot snapshot = getCurrentSnapshot();
+        if (snapshot.candidates == null) {
+            snapshot.candidates = index.toWords(snapshot.bitset);
+        }
+        return snapshot.candidates;
+    }
+
+    /**
+     * @return the number of possible words with all turns
+     */
+    public int getCandidateCount() {
+        return getCurrentSnapshot().count;
+    }
+
+    /**
+     * Returns whether the word with the given id (see {@link WordBitsetIndex#getDictionary}) is possible with all
+     * turns.
+     *
+     * @param id the word id
+     * @return true if the word is a candidate
+     */
+    public boolean isCandidate(int id) {
+        return WordBitsetIndex.contains(getCurrentSnapshot().bitset, id);
+    }
+
+    private Snapshot getCurrentSnapshot() {
+        return snapshots.isEmpty() ? root : snapshots.get(snapshots.size() - 1);
+    }
+
+    private static final class Snapshot {
+
+        private final WordleResultData resultData;
+        private final long[] bitset;
+        private final int count;
+        /** Candidate words, created from the bitset on first use. */
+        private List<String> candidates;
+
+        Snapshot(WordleResultData resultData, long[] bitset) {
+            this.resultData = resultData;
+            this.bitset = bitset;
+            this.count = WordBitsetIndex.count(bitset);
+        }
+    }
+}
@@ -44,6 +44,35 @@ public class GameDataCreator {
         return new WordleResultData(knownChars, wrongCharsByPosition, predicatesByChar);
     }
 
+    /**
+     * Combines the result data of previous turns with the result data of further turns, so that the result is the
+     * same as if it had been constructed from all turns together. The given result data are not modified.
+     *
+     * @param resultData the result data of the previous turns
+     * @param additionalData the result data of the further turns
+     * @return result data of all turns
+     */
+    public WordleResultData merge(WordleResultData resultData, WordleResultData additionalData) {
+        Character[] knownChars = resultData.knownCharactersByIndex().clone();
+        HashSetMultimap<Integer, Character> wrongCharsByPosition = new HashSetMultimap<>();
+        Map<Character, CharCountPredicate> predicatesByChar = new HashMap<>();
+        predicatesByChar.putAll(resultData.predicatesByChar());
+
+        for (int i = 0; i < WORD_LENGTH; i++) {
+            if (additionalData.knownCharactersByIndex()[i] != null) {
+                knownChars[i] = additionalData.knownCharactersByIndex()[i];
+            }
+        }
+        for (WordleResultData data : List.of(resultData, additionalData)) {
+            data.wrongCharsByIndex().getBackingMap().forEach((position, characters) ->
+                characters.forEach(chr -> wrongCharsByPosition.put(position, chr)));
+        }
+        additionalData.predicatesByChar().forEach((chr, predicate) -> {
+            predicatesByChar.merge(chr, predicate, CharCountPredicate::merge);
+        });
+        return new WordleResultData(knownChars, wrongCharsByPosition, predicatesByChar);
+    }
+
     public static final class CharCountPredicateBuilder {
 
         private final Map<Character, CharCountPredicate> predicatesByChar = new HashMap<>(WORD_LENGTH);
@@ -0,0 +1,342 @@
+package ch.jalu.wordlehelper.evaluation;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Searches the decision tree of the remaining game to find the guess that minimizes the expected or the worst-case
+ * number of guesses until the result is found.
+ * <p>
+ * Sub-problems are identified by the set of words that are still possible and the number of guesses that are left.
+ * Solutions are kept in a transposition table, so a candidate set that is reached through different guess orders is
+ * only solved once. Guesses are skipped when a lower bound shows that they cannot beat the best guess found so far.
+ * <p>
+ * The search is only exhaustive, and the costs exact, if the number of guesses per candidate set is not limited.
+ * With a limit, only the most promising guesses by split are searched at every candidate set: the result is then
+ * the best strategy within that bounded tree, i.e. an approximation whose cost is an upper bound of the optimum.
+ * <p>
+ * A search can take very long, so a cancellation check can be given that is run for every candidate set that is
+ * solved; if it throws, the search is aborted with its exception. Instances are not thread-safe.
+ */
+public class GameTreeSolver {
+
+    /** Cost of candidate sets that cannot be solved within the remaining guesses. */
+    public static final long UNSOLVABLE = Long.MAX_VALUE;
+
+    private final PatternMatrix patternMatrix;
+    private final Objective objective;
+    private final int[] guessPool;
+    private final int maxGuessesPerNode;
+    private final Runnable cancellationCheck;
+    private final Map<StateKey, Solution> transpositionTable = new HashMap<>();
+    private long evaluatedNodes;
+
+    /**
+     * Constructor.
+     *
+     * @param patternMatrix pattern matrix containing all words that may be guessed or be the result
+     * @param objective what the solver minimizes
+     * @param guessPool the words that may be guessed; empty to only guess words that are still possible
+     * @param maxGuessesPerNode the maximum number of guesses (the most promising by split) that are searched per
+     *                          candidate set; 0 to search all guesses of the pool
+     */
+    public GameTreeSolver(PatternMatrix patternMatrix, Objective objective, List<String> guessPool,
+                          int maxGuessesPerNode) {
+        this(patternMatrix, objective, guessPool, maxGuessesPerNode, () -> { });
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param patternMatrix pattern matrix containing all words that may be guessed or be the result
+     * @param objective what the solver minimizes
+     * @param guessPool the words that may be guessed; empty to only guess words that are still possible
+     * @param maxGuessesPerNode the maximum number of guesses (the most promising by split) that are searched per
+     *                          candidate set; 0 to search all guesses of the pool
+     * @param cancellationCheck run before every candidate set is solved; throws to abort the search
+     */
+    public GameTreeSolver(PatternMatrix patternMatrix, Objective objective, List<String> guessPool,
+                          int maxGuessesPerNode, Runnable cancellationCheck) {
+        if (maxGuessesPerNode < 0) {
+            throw new IllegalArgumentException("Max guesses per node may not be negative, got " + maxGuessesPerNode);
+        }
+        this.patternMatrix = patternMatrix;
+        this.objective = objective;
+        this.guessPool = patternMatrix.toIndices(guessPool);
+        this.maxGuessesPerNode = maxGuessesPerNode;
+        this.cancellationCheck = cancellationCheck;
+    }
+
+    /**
+     * Finds the best guess for the given possible results.
+     *
+     * @param possibleResults the words that are still possible
+     * @param maxGuesses the number of guesses the result must be found in (search depth)
+     * @return the solution, or null if the results cannot be told apart within the given number of guesses
+     */
+    public Solution solve(List<String> possibleResults, int maxGuesses) {
+        if (possibleResults.isEmpty()) {
+            throw new IllegalArgumentException("Need at least one possible result");
+        } else if (maxGuesses < 1) {
+            throw new IllegalArgumentException("Need at least one guess, got " + maxGuesses);
+        }
+        int[] candidates = patternMatrix.toIndices(possibleResults);
+        Arrays.sort(candidates);
+        Solution solution = solve(candidates, maxGuesses);
+        return solution.cost() == UNSOLVABLE ? null : solution;
+    }
+
+    /**
+     * Returns the solution for the candidates that remain if the given guess results in the given pattern.
+     * Only sub-problems that were visited by a previous call to {@link #solve(List, int)} are available.
+     *
+     * @param possibleResults the words that were possible before the guess
+     * @param guess the played word
+     * @param pattern the pattern code of the feedback
+     * @param maxGuesses the number of guesses that were left before the guess
+     * @return the solution of the remaining candidates, or null if it was not computed
+     */
+    public Solution getSolutionAfter(List<String> possibleResults, String guess, int pattern, int maxGuesses) {
+        int[] bucket = createBucket(patternMatrix.toIndices(possibleResults), patternMatrix.requireIndex(guess),
+            pattern);
+        Arrays.sort(bucket);
+        if (bucket.length == 1) {
+            return new Solution(bucket[0], 1, 1);
+        }
+        return transpositionTable.get(new StateKey(bucket, maxGuesses - 1));
+    }
+
+    /**
+     * @return the number of candidate sets in the transposition table
+     */
+    public int getTranspositionTableSize() {
+        return transpositionTable.size();
+    }
+
+    /**
+     * @return the number of candidate sets that were solved (i.e. not taken from the transposition table)
+     */
+    public long getEvaluatedNodes() {
+        return evaluatedNodes;
+    }
+
+    public String getWord(int index) {
+        return patternMatrix.getWords().get(index);
+    }
+
+    private Solution solve(int[] candidates, int guessesLeft) {
+        if (candidates.length == 1) {
+            return new Solution(candidates[0], 1, 1);
+        } else if (guessesLeft <= 1) {
+            return new Solution(-1, UNSOLVABLE, candidates.length);
+        }
+
+        StateKey key = new StateKey(candidates, guessesLeft);
+        Solution solution = transpositionTable.get(key);
+        if (solution == null) {
+            cancellationCheck.run();
+            ++evaluatedNodes;
+            solution = solveUncached(candidates, guessesLeft);
+            transpositionTable.put(key, solution);
+        }
+        return solution;
+    }
+
+    private Solution solveUncached(int[] candidates, int guessesLeft) {
+        long bestCost = UNSOLVABLE;
+        int bestGuess = -1;
+        int[] countByPattern = new int[WordleTurnEvaluator.PATTERN_COUNT];
+        for (int guess : selectGuesses(candidates)) {
+            countPatterns(candidates, guess, countByPattern);
+            long lowerBound = calculateLowerBound(countByPattern);
+            if (lowerBound >= bestCost) {
+                continue;
+            }
+
+            long cost = evaluateGuess(candidates, guess, guessesLeft, countByPattern, lowerBound, bestCost);
+            if (cost < bestCost) {
+                bestCost = cost;
+                bestGuess = guess;
+            }
+        }
+        return new Solution(bestGuess, bestCost, candidates.length);
+    }
+
+    /**
+     * Returns the cost of playing the given guess, or a value that is at least {@code costToBeat} if the guess is
+     * worse than that.
+     */
+    private long evaluateGuess(int[] candidates, int guess, int guessesLeft, int[] countByPattern, long lowerBound,
+                               long costToBeat) {
+        long cost = lowerBound;
+        for (int pattern = 0; pattern < WordleTurnEvaluator.ALL_GREEN_PATTERN; ++pattern) {
+            int count = countByPattern[pattern];
+            if (count == 0) {
+                continue;
+            }
+
+            Solution bucketSolution = solve(createBucket(candidates, guess, pattern), guessesLeft - 1);
+            if (bucketSolution.cost() == UNSOLVABLE) {
+                return UNSOLVABLE;
+            }
+            cost = objective.replaceLowerBound(cost, count, bucketSolution.cost());
+            if (cost >= costToBeat) {
+                return cost;
+            }
+        }
+        return cost;
+    }
+
+    /**
+     * Returns the guesses to search for the given candidates, most promising first. Guesses that yield the same
+     * pattern for all candidates are skipped as they do not bring the game forward.
+     */
+    private int[] selectGuesses(int[] candidates) {
+        int[] pool = guessPool.length == 0 ? candidates : guessPool;
+        int[] countByPattern = new int[WordleTurnEvaluator.PATTERN_COUNT];
+        List<long[]> guessesWithScore = new ArrayList<>();
+        for (int guess : pool) {
+            countPatterns(candidates, guess, countByPattern);
+            long score = 0;
+            int buckets = 0;
+            for (int count : countByPattern) {
+                score += (long) count * (count - 1);
+                buckets += count > 0 ? 1 : 0;
+            }
+            if (buckets > 1 || countByPattern[WordleTurnEvaluator.ALL_GREEN_PATTERN] > 0) {
+                // Prefer guesses that may be the result when they split equally well
+                int isCandidate = countByPattern[WordleTurnEvaluator.ALL_GREEN_PATTERN] > 0 ? 0 : 1;
+                guessesWithScore.add(new long[]{ score * 2 + isCandidate, guess });
+            }
+        }
+        guessesWithScore.sort((a, b) -> a[0] != b[0] ? Long.compare(a[0], b[0]) : Long.compare(a[1], b[1]));
+
+        int total = maxGuessesPerNode == 0 ? guessesWithScore.size()
+            : Math.min(maxGuessesPerNode, guessesWithScore.size());
+        int[] guesses = new int[total];
+        for (int i = 0; i < total; ++i) {
+            guesses[i] = (int) guessesWithScore.get(i)[1];
+        }
+        return guesses;
+    }
+
+    /**
+     * Returns a lower bound of the cost of a guess that splits the candidates as given by the counts.
+     */
+    private long calculateLowerBound(int[] countByPattern) {
+        long bound = objective.getCostOfFoundResult(countByPattern[WordleTurnEvaluator.ALL_GREEN_PATTERN]);
+        for (int pattern = 0; pattern < WordleTurnEvaluator.ALL_GREEN_PATTERN; ++pattern) {
+            if (countByPattern[pattern] > 0) {
+                bound = objective.addLowerBound(bound, countByPattern[pattern]);
+            }
+        }
+        return bound;
+    }
+
+    private void countPatterns(int[] candidates, int guess, int[] countByPattern) {
+        Arrays.fill(countByPattern, 0);
+        for (int candidate : candidates) {
+            ++countByPattern[patternMatrix.getPattern(guess, candidate)];
+        }
+    }
+
+    /**
+     * Returns the candidates that produce the given pattern for the guess, in the order of the candidates.
+     */
+    private int[] createBucket(int[] candidates, int guess, int pattern) {
+        int[] bucket = new int[candidates.length];
+        int size = 0;
+        for (int candidate : candidates) {
+            if (patternMatrix.getPattern(guess, candidate) == pattern) {
+                bucket[size] = candidate;
+                ++size;
+            }
+        }
+        return Arrays.copyOf(bucket, size);
+    }
+
+    /**
+     * What the solver minimizes. Costs are integers: for the expected number of guesses, the total number of guesses
+     * over all candidates is computed (divided by the number of candidates in {@link Solution#getExpectedGuesses()}).
+     */
+    public enum Objective {
+
+        /** Minimize the average number of guesses. */
+        EXPECTED {
+            @Override
+            long getCostOfFoundResult(int count) {
+                return count;
+            }
+
+            @Override
+            long addLowerBound(long cost, int bucketSize) {
+                // Each word needs this guess and at least one more; at most one word is found with the next guess
+                return cost + bucketSize + 2L * bucketSize - 1;
+            }
+
+            @Override
+            long replaceLowerBound(long cost, int bucketSize, long bucketCost) {
+                return cost - (2L * bucketSize - 1) + bucketCost;
+            }
+        },
+
+        /** Minimize the number of guesses that are needed in the worst case. */
+        WORST_CASE {
+            @Override
+            long getCostOfFoundResult(int count) {
+                return count > 0 ? 1 : 0;
+            }
+
+            @Override
+            long addLowerBound(long cost, int bucketSize) {
+                return Math.max(cost, bucketSize == 1 ? 2 : 3);
+            }
+
+            @Override
+            long replaceLowerBound(long cost, int bucketSize, long bucketCost) {
+                return Math.max(cost, 1 + bucketCost);
+            }
+        };
+
+        abstract long getCostOfFoundResult(int count);
+
+        abstract long addLowerBound(long cost, int bucketSize);
+
+        abstract long replaceLowerBound(long cost, int bucketSize, long bucketCost);
+    }
+
+    /**
+     * Best guess for a set of candidates.
+     *
+     * @param guessIndex index of the guess in the pattern matrix
+     * @param cost the cost according to the objective ({@link #UNSOLVABLE} if there is no solution)
+     * @param candidates the number of candidates the solution is for
+     */
+    public record Solution(int guessIndex, long cost, int candidates) {
+
+        /**
+         * @return the average number of guesses if the solver minimized the expected number of guesses
+         */
+        public double getExpectedGuesses() {
+            return (double) cost / candidates;
+        }
+    }
+
+    private record StateKey(int[] candidates, int guessesLeft) {
+
+        @Override
+        public boolean equals(Object obj) {
+            return obj instanceof StateKey other
+                && guessesLeft == other.guessesLeft
+                && Arrays.equals(candidates, other.candidates);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * Arrays.hashCode(candidates) + guessesLeft;
+        }
+    }
+}
@@ -0,0 +1,249 @@
+package ch.jalu.wordlehelper.evaluation;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+import static ch.jalu.wordlehelper.Constants.WORD_LENGTH;
+
+/**
+ * Finds the sets of words whose distinct letters have the highest total frequency, e.g. to find combinations of
+ * starting words that cover the most frequent letters.
+ * <p>
+ * Each word is represented as a 26-bit mask of its letters; words with the same letters (anagrams) are searched once.
+ * The masks are sorted by their score, so the search can stop extending a set as soon as adding the best remaining
+ * masks (or the most frequent letters that are not covered yet) cannot reach the lowest score that is still kept.
+ * Sets are searched in parallel by their first word.
+ */
+public class LetterCoverageSearch {
+
+    private final double[] frequencyByLetter;
+    private final int[] lettersByFrequency;
+    private final int[] masks;
+    private final double[] scoreByMask;
+    private final List<List<String>> wordsByMask;
+    private final double maxScore;
+
+    /**
+     * Constructor.
+     *
+     * @param frequencyByLetter the frequency (score) of each letter A-Z
+     * @param words the words to combine
+     */
+    public LetterCoverageSearch(double[] frequencyByLetter, List<String> words) {
+        this.frequencyByLetter = frequencyByLetter;
+        this.lettersByFrequency = IntStream.range(0, 26).boxed()
+            .sorted(Comparator.comparingDouble((Integer letter) -> frequencyByLetter[letter]).reversed())
+            .mapToInt(Integer::intValue)
+            .toArray();
+
+        Map<Integer, List<String>> wordsByLetterMask = new LinkedHashMap<>();
+        for (String word : words) {
+            wordsByLetterMask.computeIfAbsent(toMask(word), k -> new ArrayList<>()).add(word);
+        }
+        Integer[] sortedMasks = wordsByLetterMask.keySet().toArray(Integer[]::new);
+        Arrays.sort(sortedMasks, Comparator.comparingDouble((Integer mask) -> calculateScore(mask)).reversed()
+            .thenComparing(Comparator.naturalOrder()));
+
+        this.masks = new int[sortedMasks.length];
+        this.scoreByMask = new double[sortedMasks.length];
+        this.wordsByMask = new ArrayList<>(sortedMasks.length);
+        for (int i = 0; i < sortedMasks.length; ++i) {
+            masks[i] = sortedMasks[i];
+            scoreByMask[i] = calculateScore(sortedMasks[i]);
+            wordsByMask.add(List.copyOf(wordsByLetterMask.get(sortedMasks[i])));
+        }
+        this.maxScore = calculateScore((1 << 26) - 1);
+    }
+
+    /**
+     * Returns the sets of the given number of words with the highest score, i.e. the highest sum of the frequencies
+     * of all distinct letters in the set.
+     *
+     * @param wordsPerSet number of words in each set (e.g. 2 to 4)
+     * @param limit maximum number of sets to return
+     * @param executor the executor to run the search with
+     * @return the best sets, best first
+     */
+    public List<Coverage> findBestSets(int wordsPerSet, int limit, ScoringExecutor executor) {
+        if (wordsPerSet < 1) {
+            throw new IllegalArgumentException("Sets must have at least one word, got " + wordsPerSet);
+        } else if (limit < 1) {
+            throw new IllegalArgumentException("Limit must be positive, got " + limit);
+        }
+
+        // Lowest score that is kept by any chunk; a set with a lower score can never be part of the result
+        AtomicLong sharedThreshold = new AtomicLong(Double.doubleToLongBits(0.0));
+        List<PriorityQueue<Candidate>> results = new ArrayList<>();
+        executor.forEachRange(masks.length, (from, to) -> {
+            Search search = new Search(wordsPerSet, limit, sharedThreshold);
+            for (int i = from; i < to; ++i) {
+                search.searchFrom(i);
+            }
+            synchronized (results) {
+                results.add(search.best);
+            }
+        });
+
+        PriorityQueue<Candidate> best = new PriorityQueue<>(Candidate.WORST_FIRST);
+        for (PriorityQueue<Candidate> result : results) {
+            for (Candidate candidate : result) {
+                offer(best, candidate, limit);
+            }
+        }
+        List<Candidate> sorted = new ArrayList<>(best);
+        sorted.sort(Candidate.WORST_FIRST.reversed());
+        return sorted.stream()
+            .map(this::toCoverage)
+            .toList();
+    }
+
+    private Coverage toCoverage(Candidate candidate) {
+        List<List<String>> words = Arrays.stream(candidate.maskIndices)
+            .mapToObj(wordsByMask::get)
+            .toList();
+        return new Coverage(candidate.score, words);
+    }
+
+    private static void offer(PriorityQueue<Candidate> best, Candidate candidate, int limit) {
+        if (best.size() < limit) {
+            best.add(candidate);
+        } else if (Candidate.WORST_FIRST.compare(candidate, best.peek()) > 0) {
+            best.poll();
+            best.add(candidate);
+        }
+    }
+
+    private double calculateScore(int mask) {
+        double score = 0;
+        for (int remaining = mask; remaining != 0; remaining &= remaining - 1) {
+            score += frequencyByLetter[Integer.numberOfTrailingZeros(remaining)];
+        }
+        return score;
+    }
+
+    /**
+     * Returns the highest score that the given number of words can add to the covered letters, i.e. the sum of the
+     * frequencies of the most frequent letters that are not covered yet.
+     */
+    private double getMaxAdditionalScore(int coveredMask, int words) {
+        int lettersLeft = words * WORD_LENGTH;
+        double score = 0;
+        for (int i = 0; i < lettersByFrequency.length && lettersLeft > 0; ++i) {
+            int letter = lettersByFrequency[i];
+            if ((coveredMask & (1 << letter)) == 0) {
+                score += frequencyByLetter[letter];
+                --lettersLeft;
+            }
+        }
+        return score;
+    }
+
+    private static int toMask(String word) {
+        int mask = 0;
+        for (int i = 0; i < word.length(); ++i) {
+            mask |= 1 << (word.charAt(i) - 'A');
+        }
+        return mask;
+    }
+
+    /**
+     * Depth-first search over the sets of masks; one instance per thread.
+     */
+    private final class Search {
+
+        private final int wordsPerSet;
+        private final int limit;
+        private final AtomicLong sharedThreshold;
+        private final int[] maskIndices;
+        private final PriorityQueue<Candidate> best = new PriorityQueue<>(Candidate.WORST_FIRST);
+
+        Search(int wordsPerSet, int limit, AtomicLong sharedThreshold) {
+            this.wordsPerSet = wordsPerSet;
+            this.limit = limit;
+            this.sharedThreshold = sharedThreshold;
+            this.maskIndices = new int[wordsPerSet];
+        }
+
+        void searchFrom(int firstIndex) {
+            if (scoreByMask[firstIndex] * wordsPerSet < getThreshold()) {
+                return;
+            }
+            maskIndices[0] = firstIndex;
+            search(1, firstIndex + 1, masks[firstIndex]);
+        }
+
+        private void search(int depth, int start, int coveredMask) {
+            double coveredScore = calculateScore(coveredMask);
+            if (depth == wordsPerSet) {
+                if (coveredScore >= getThreshold()) {
+                    offer(best, new Candidate(coveredScore, maskIndices.clone()), limit);
+                    if (best.size() == limit) {
+                        double threshold = best.peek().score;
+                        sharedThreshold.accumulateAndGet(Double.doubleToLongBits(threshold), Math::max);
+                    }
+                }
+                return;
+            }
+
+            int remainingWords = wordsPerSet - depth;
+            if (coveredScore + getMaxAdditionalScore(coveredMask, remainingWords) < getThreshold()) {
+                return;
+            }
+            for (int i = start; i < masks.length; ++i) {
+                // Masks are sorted by score, so no later mask can reach the threshold either
+                double upperBound = Math.min(maxScore, coveredScore + remainingWords * scoreByMask[i]);
+                if (upperBound < getThreshold()) {
+                    break;
+                }
+                if ((masks[i] & ~coveredMask) != 0) {
+                    maskIndices[depth] = i;
+                    search(depth + 1, i + 1, coveredMask | masks[i]);
+                }
+            }
+        }
+
+        /**
+         * Returns the lowest score a set must have to be kept. The scores are non-negative, so their bits can be
+         * compared as longs.
+         */
+        private double getThreshold() {
+            double shared = Double.longBitsToDouble(sharedThreshold.get());
+            return best.size() == limit ? Math.max(shared, best.peek().score) : shared;
+        }
+    }
+
+    private record Candidate(double score, int[] maskIndices) {
+
+        /** Orders by score, then prefers the sets of masks that come first (i.e. the worst candidate is first). */
+        static final Comparator<Candidate> WORST_FIRST = Comparator.comparingDouble(Candidate::score)
+            .thenComparing(Candidate::maskIndices, (a, b) -> Arrays.compare(b, a));
+    }
+
+    /**
+     * Set of words and the total frequency of their distinct letters.
+     *
+     * @param score the sum of the frequencies of all distinct letters
+     * @param words the words of the set; each entry contains the words with the same letters (anagrams)
+     */
+    public record Coverage(double score, List<List<String>> words) {
+
+        @Override
+        public String toString() {
+            StringBuilder sb = new StringBuilder();
+            for (List<String> anagrams : words) {
+                if (sb.length() > 0) {
+                    sb.append(",");
+                }
+                sb.append(String.join("/", anagrams));
+            }
+            return sb.toString();
+        }
+    }
+}
@@ -1,49 +1,82 @@
 package ch.jalu.wordlehelper.evaluation;
 
+import ch.jalu.wordlehelper.model.WordDictionary;
 import ch.jalu.wordlehelper.model.predicate.CharCountPredicate;
 import ch.jalu.wordlehelper.model.predicate.HasExactCountPredicate;
 import ch.jalu.wordlehelper.model.predicate.MinimumCountPredicate;
 
-import java.math.BigDecimal;
-import java.math.MathContext;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.TreeMap;
 
 import static ch.jalu.wordlehelper.Constants.WORD_LENGTH;
 import static java.util.Collections.emptyMap;
 
 public class LetterFrequencyCalculator {
 
-    public Map<Character, BigDecimal> calculateFrequencyOfLetters(Collection<String> words) {
+    /**
+     * Returns the frequency of each letter in the given words, indexed by letter (0 = A, 25 = Z).
+     *
+     * @param words the words to process
+     * @return frequency by letter index
+     */
+    public double[] calculateFrequencyOfLetters(Collection<String> words) {
         return calculateFrequencyOfLetters(words, emptyMap());
     }
 
-    public Map<Character, BigDecimal> calculateFrequencyOfLetters(Collection<String> words,
-                                                        Map<Character, CharCountPredicate> knownFrequenciesToSubtract) {
-        Map<Character, Integer> countByLetter = new TreeMap<>();
+    /**
+     * Returns the frequency of each letter in the given words, indexed by letter (0 = A, 25 = Z). The letters we
+     * already know to be present (as per the given predicates) are subtracted.
+     *
+     * @param words the words to process
+     * @param knownFrequenciesToSubtract predicates of the letters whose known count should be subtracted
+     * @return frequency by letter index
+     */
+    public double[] calculateFrequencyOfLetters(Collection<String> words,
+                                                Map<Character, CharCountPredicate> knownFrequenciesToSubtract) {
+        int[] countByLetter = new int[26];
         for (String word : words) {
             for (int i = 0; i < WORD_LENGTH; ++i) {
-                countByLetter.merge(word.charAt(i), 1, Integer::sum);
+                ++countByLetter[word.charAt(i) - 'A'];
             }
         }
-        int total = WORD_LENGTH * words.size();
+        return toFrequencies(countByLetter, words.size(), knownFrequenciesToSubtract);
+    }
+
+    /**
+     * Returns the frequency of each letter in the words with the given ids, like
+     * {@link #calculateFrequencyOfLetters(Collection, Map)}.
+     *
+     * @param dictionary the dictionary the ids belong to
+     * @param wordIds ids of the words to process
+     * @param knownFrequenciesToSubtract predicates of the letters whose known count should be subtracted
+     * @return frequency by letter index
+     */
+    public double[] calculateFrequencyOfLetters(WordDictionary dictionary, int[] wordIds,
+                                                Map<Character, CharCountPredicate> knownFrequenciesToSubtract) {
+        int[] countByLetter = new int[26];
+        for (int wordId : wordIds) {
+            int packedWord = dictionary.getPackedWord(wordId);
+            for (int i = 0; i < WORD_LENGTH; ++i) {
+                ++countByLetter[WordDictionary.getLetter(packedWord, i)];
+            }
+        }
+        return toFrequencies(countByLetter, wordIds.length, knownFrequenciesToSubtract);
+    }
+
+    private double[] toFrequencies(int[] countByLetter, int words,
+                                   Map<Character, CharCountPredicate> knownFrequenciesToSubtract) {
+        int total = WORD_LENGTH * words;
         for (Map.Entry<Character, Integer> entry : gatherKnownFrequencies(knownFrequenciesToSubtract).entrySet()) {
-            Character chr = entry.getKey();
-            int subtrahend = entry.getValue() * words.size();
-            countByLetter.put(chr, countByLetter.get(chr) - subtrahend);
+            int subtrahend = entry.getValue() * words;
+            countByLetter[entry.getKey() - 'A'] -= subtrahend;
             total -= subtrahend;
         }
 
-        MathContext mathContext = MathContext.DECIMAL32;
-        BigDecimal totalLetters = BigDecimal.valueOf(total);
-
-        Map<Character, BigDecimal> frequencyByLetter = new HashMap<>();
-        countByLetter.forEach((letter, count) -> {
-            BigDecimal frequency = BigDecimal.valueOf(count).divide(totalLetters, mathContext);
-            frequencyByLetter.put(letter, frequency);
-        });
+        double[] frequencyByLetter = new double[26];
+        for (int letter = 0; letter < 26; ++letter) {
+            frequencyByLetter[letter] = (double) countByLetter[letter] / total;
+        }
         return frequencyByLetter;
     }
 
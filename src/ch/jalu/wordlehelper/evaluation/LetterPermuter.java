@@ -1,125 +1,354 @@
 package ch.jalu.wordlehelper.evaluation;
 
 import ch.jalu.wordlehelper.Constants;
+import ch.jalu.wordlehelper.model.WordDictionary;
 import ch.jalu.wordlehelper.model.WordleResultData;
 import ch.jalu.wordlehelper.model.predicate.CharCountPredicate;
 import ch.jalu.wordlehelper.model.predicate.HasExactCountPredicate;
 import ch.jalu.wordlehelper.model.predicate.MinimumCountPredicate;
 
 import java.util.ArrayList;
-import java.util.Collections;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
+/**
+ * Generates the patterns in which the letters we know to be present (yellow letters) can be placed into the cells
+ * whose letter is not known yet, e.g. {@code E * * * T}. A {@code *} stands for any other letter.
+ * <p>
+ * Patterns are created lazily in sorted order: the cells are filled from left to right, trying the distinct letters
+ * in ascending order, so no pattern needs to be created before the previous one has been consumed.
+ */
 public final class LetterPermuter {
 
+    /** Placeholder for a cell whose letter is not one of the yellow letters. */
+    private static final char WILDCARD = '*';
+
     private LetterPermuter() {
     }
 
+    /**
+     * Returns all patterns in sorted order (see {@link #streamAllCombinations(WordleResultData)}).
+     *
+     * @param resultData the result data
+     * @return all patterns
+     */
     public static List<String> generateAllCombinations(WordleResultData resultData) {
-        Map<Integer, Character> knownCharsByIndex = collectKnownCharsByIndex(resultData);
-        List<Character> yellowChars = collectYellowChars(resultData);
-
-        List<Character> permutationElements = new ArrayList<>(Constants.WORD_LENGTH);
-        permutationElements.addAll(yellowChars);
-        for (int i = permutationElements.size(); i < Constants.WORD_LENGTH - knownCharsByIndex.size(); ++i) {
-            permutationElements.add('*');
-        }
+        return streamAllCombinations(resultData).toList();
+    }
 
-        // Example: (Wordle #1000)
-        //   B  E? E  T? S
-        //   D  U  V  E? T!
-        // results in knownCharsByIndex={4=T} permutationElements=[E, *, *, *]
+    /**
+     * Returns a lazy stream of all patterns in sorted order. Every pattern has the letters of all cells, separated
+     * by spaces; the cells whose letter is unknown and which do not have a yellow letter are {@code *}.
+     *
+     * @param resultData the result data
+     * @return stream of all patterns
+     */
+    public static Stream<String> streamAllCombinations(WordleResultData resultData) {
+        return toStream(new PatternIterator(resultData, null));
+    }
 
-        Map<Integer, Integer> permutationIndexToWordIndex =
-                mapPermutationIndexToWordIndex(permutationElements, knownCharsByIndex);
+    /**
+     * Returns a lazy stream of the patterns that at least one of the given words matches, in sorted order. A word
+     * matches a pattern if it has the pattern's letter in every cell that is not {@code *}. Branches that no word
+     * matches are skipped, so the patterns that are impossible with the given words are never created.
+     *
+     * @param resultData the result data
+     * @param words the words to match (e.g. the words that are still possible)
+     * @return stream of the patterns that match a word
+     */
+    public static Stream<String> streamMatchingCombinations(WordleResultData resultData, Collection<String> words) {
+        int[] packedWords = words.stream().mapToInt(WordDictionary::pack).toArray();
+        return toStream(new PatternIterator(resultData, packedWords));
+    }
 
-        List<String> permutations = createPermutations(
-                "", permutationElements, permutationIndexToWordIndex, resultData);
-        return permutations.stream()
-            .map(permutation -> addKnownCharactersAndSpacesToPermutation(permutation, knownCharsByIndex))
-            .sorted()
-            .toList();
+    /**
+     * Returns the number of patterns {@link #streamAllCombinations} produces without creating them. The patterns are
+     * counted per number of remaining letters, since the letters that are left for the next cells do not depend on
+     * the order in which the previous cells were filled.
+     *
+     * @param resultData the result data
+     * @return number of patterns
+     */
+    public static long countAllCombinations(WordleResultData resultData) {
+        Elements elements = Elements.of(resultData);
+        if (elements.cells() == 0) {
+            return 1;
+        }
+        return countCombinations(elements, elements.counts.clone(), 0, new HashMap<>());
     }
 
-    private static Map<Integer, Integer> mapPermutationIndexToWordIndex(List<Character> permutationElements,
-                                                                        Map<Integer, Character> knownCharsByIndex) {
-        Map<Integer, Integer> permutationIndexToWordIndex = new HashMap<>();
-        int wordIndex = 0;
-        for (int i = 0; i < permutationElements.size(); i++) {
-            while (knownCharsByIndex.containsKey(wordIndex)) {
-                ++wordIndex;
+    private static long countCombinations(Elements elements, int[] remaining, int cell, Map<Integer, Long> cache) {
+        if (cell == elements.cells()) {
+            return 1;
+        }
+        // The cell is given by the number of remaining elements, so the counts identify the state
+        int key = 0;
+        for (int count : remaining) {
+            key = key * (Constants.WORD_LENGTH + 1) + count;
+        }
+        Long cachedCount = cache.get(key);
+        if (cachedCount != null) {
+            return cachedCount;
+        }
+
+        long count = 0;
+        for (int element = 0; element < elements.letters.length; ++element) {
+            if (remaining[element] > 0 && elements.isAllowed(cell, element)) {
+                --remaining[element];
+                count += countCombinations(elements, remaining, cell + 1, cache);
+                ++remaining[element];
             }
-            permutationIndexToWordIndex.put(i, wordIndex);
-            ++wordIndex;
         }
-        return Collections.unmodifiableMap(permutationIndexToWordIndex);
+        cache.put(key, count);
+        return count;
     }
 
-    private static List<String> createPermutations(String prefix,
-                                                   List<Character> elements,
-                                                   Map<Integer, Integer> permutationIndexToWordIndex,
-                                                   WordleResultData resultData) {
-        if (elements.isEmpty()) {
-            return List.of(prefix);
-        }
-
-        final int currentPermutationIndex = prefix.length();
-        final int wordIndex = permutationIndexToWordIndex.get(currentPermutationIndex);
-
-
-        List<String> result = new ArrayList<>();
-        elements.stream()
-            .distinct()
-            .filter(element -> !resultData.wrongCharsByIndex().contains(wordIndex, element))
-            .forEach(element -> {
-                List<Character> newElements = new ArrayList<>(elements);
-                newElements.remove(element);
-                String newPrefix = prefix + element;
-                result.addAll(createPermutations(newPrefix, newElements, permutationIndexToWordIndex, resultData));
-            });
-        return result;
+    private static Stream<String> toStream(Iterator<String> iterator) {
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator,
+            Spliterator.ORDERED | Spliterator.SORTED | Spliterator.DISTINCT | Spliterator.NONNULL), false);
     }
 
-    private static String addKnownCharactersAndSpacesToPermutation(String permutation,
-                                                                   Map<Integer, Character> knownCharsByIndex) {
-        String completePattern;
-        if (knownCharsByIndex.isEmpty()) {
-            completePattern = permutation;
-        } else {
-            completePattern = "";
-            int permutationIndex = 0;
+    /**
+     * Depth-first search over the cells whose letter is unknown, with an explicit stack so that it can stop after
+     * every pattern.
+     */
+    private static final class PatternIterator implements Iterator<String> {
+
+        private final Elements elements;
+        private final int[] remaining;
+        private final int[] choices;
+        private final char[] pattern;
+
+        /** Packed words that match the pattern up to each cell, or null if the patterns are not pruned. */
+        private final int[][] matchingWords;
+        private final int[] matchingWordCounts;
+
+        private boolean started;
+        private boolean hasNext;
+
+        PatternIterator(WordleResultData resultData, int[] packedWords) {
+            this.elements = Elements.of(resultData);
+            this.remaining = elements.counts.clone();
+            this.choices = new int[elements.cells()];
+            this.pattern = new char[Constants.WORD_LENGTH];
+            Character[] knownCharacters = resultData.knownCharactersByIndex();
+            for (int i = 0; i < Constants.WORD_LENGTH; ++i) {
+                pattern[i] = knownCharacters[i] == null ? WILDCARD : knownCharacters[i];
+            }
+
+            if (packedWords == null) {
+                this.matchingWords = null;
+                this.matchingWordCounts = null;
+            } else {
+                this.matchingWords = new int[elements.cells() + 1][];
+                this.matchingWordCounts = new int[elements.cells() + 1];
+                matchingWords[0] = filterByKnownCharacters(packedWords, knownCharacters);
+                matchingWordCounts[0] = matchingWords[0].length;
+                for (int cell = 1; cell <= elements.cells(); ++cell) {
+                    matchingWords[cell] = new int[matchingWordCounts[0]];
+                }
+            }
+            this.hasNext = advance();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return hasNext;
+        }
+
+        @Override
+        public String next() {
+            if (!hasNext) {
+                throw new NoSuchElementException();
+            }
+            StringBuilder sb = new StringBuilder(Constants.WORD_LENGTH * 2 - 1);
             for (int i = 0; i < Constants.WORD_LENGTH; ++i) {
-                Character knownChar = knownCharsByIndex.get(i);
-                if (knownChar != null) {
-                    completePattern += knownChar;
+                if (i > 0) {
+                    sb.append(' ');
+                }
+                sb.append(pattern[i]);
+            }
+            hasNext = advance();
+            return sb.toString();
+        }
+
+        /**
+         * Moves to the next complete pattern and returns whether there is one.
+         */
+        private boolean advance() {
+            int cells = elements.cells();
+            int cell;
+            if (!started) {
+                started = true;
+                if (cells == 0) {
+                    return matchingWordCounts == null || matchingWordCounts[0] > 0;
+                }
+                cell = 0;
+                choices[0] = -1;
+            } else {
+                if (cells == 0) {
+                    return false;
+                }
+                cell = cells - 1;
+                ++remaining[choices[cell]];
+            }
+
+            while (cell >= 0) {
+                if (chooseNextElement(cell)) {
+                    if (cell == cells - 1) {
+                        return true;
+                    }
+                    ++cell;
+                    choices[cell] = -1;
                 } else {
-                    completePattern += permutation.charAt(permutationIndex);
-                    ++permutationIndex;
+                    --cell;
+                    if (cell >= 0) {
+                        ++remaining[choices[cell]];
+                    }
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Places the next possible element (after the current choice) into the given cell.
+         *
+         * @return true if an element was placed, false if there are no further elements for the cell
+         */
+        private boolean chooseNextElement(int cell) {
+            for (int element = choices[cell] + 1; element < elements.letters.length; ++element) {
+                if (remaining[element] > 0 && elements.isAllowed(cell, element) && filterWords(cell, element)) {
+                    choices[cell] = element;
+                    --remaining[element];
+                    pattern[elements.wordIndexByCell[cell]] = elements.letters[element];
+                    return true;
                 }
             }
+            return false;
         }
 
-        StringBuilder sb = new StringBuilder(completePattern.length() * 2 - 1);
-        for (int i = 0; i < completePattern.length(); ++i) {
-            if (i > 0) {
-                sb.append(' ');
+        /**
+         * Keeps the words that have the element's letter in the given cell for the next cell, if the patterns are
+         * pruned. Returns false if no word is left.
+         */
+        private boolean filterWords(int cell, int element) {
+            if (matchingWords == null) {
+                return true;
+            }
+            int[] words = matchingWords[cell];
+            int wordCount = matchingWordCounts[cell];
+            int[] result = matchingWords[cell + 1];
+            char letter = elements.letters[element];
+            if (letter == WILDCARD) {
+                System.arraycopy(words, 0, result, 0, wordCount);
+                matchingWordCounts[cell + 1] = wordCount;
+                return wordCount > 0;
+            }
+
+            int wordIndex = elements.wordIndexByCell[cell];
+            int resultCount = 0;
+            for (int i = 0; i < wordCount; ++i) {
+                if (WordDictionary.getLetter(words[i], wordIndex) == letter - 'A') {
+                    result[resultCount] = words[i];
+                    ++resultCount;
+                }
             }
-            sb.append(completePattern.charAt(i));
+            matchingWordCounts[cell + 1] = resultCount;
+            return resultCount > 0;
+        }
+
+        private static int[] filterByKnownCharacters(int[] packedWords, Character[] knownCharacters) {
+            return Arrays.stream(packedWords)
+                .filter(packedWord -> {
+                    for (int i = 0; i < Constants.WORD_LENGTH; ++i) {
+                        if (knownCharacters[i] != null
+                            && WordDictionary.getLetter(packedWord, i) != knownCharacters[i] - 'A') {
+                            return false;
+                        }
+                    }
+                    return true;
+                })
+                .toArray();
         }
-        return sb.toString();
     }
 
-    private static Map<Integer, Character> collectKnownCharsByIndex(WordleResultData resultData) {
-        Map<Integer, Character> knownCharsByIndex = new HashMap<>(Constants.WORD_LENGTH);
-        Character[] knownCharactersByIndex = resultData.knownCharactersByIndex();
-        for (int i = 0; i < knownCharactersByIndex.length; i++) {
-            if (knownCharactersByIndex[i] != null) {
-                knownCharsByIndex.put(i, knownCharactersByIndex[i]);
+    /**
+     * The distinct letters to place (the yellow letters and {@link #WILDCARD}) in ascending order with their counts,
+     * and the cells they can be placed into.
+     */
+    private static final class Elements {
+
+        private final char[] letters;
+        private final int[] counts;
+        private final int[] wordIndexByCell;
+        private final boolean[][] allowedByCell;
+
+        private Elements(char[] letters, int[] counts, int[] wordIndexByCell, boolean[][] allowedByCell) {
+            this.letters = letters;
+            this.counts = counts;
+            this.wordIndexByCell = wordIndexByCell;
+            this.allowedByCell = allowedByCell;
+        }
+
+        static Elements of(WordleResultData resultData) {
+            // Example: (Wordle #1000)
+            //   B  E? E  T? S
+            //   D  U  V  E? T!
+            // results in the cells 0-3 with the elements [*, *, *, E]
+            List<Integer> wordIndexByCell = new ArrayList<>(Constants.WORD_LENGTH);
+            for (int i = 0; i < Constants.WORD_LENGTH; ++i) {
+                if (resultData.knownCharactersByIndex()[i] == null) {
+                    wordIndexByCell.add(i);
+                }
+            }
+
+            TreeMap<Character, Integer> countByLetter = new TreeMap<>();
+            List<Character> yellowChars = collectYellowChars(resultData);
+            for (Character chr : yellowChars) {
+                countByLetter.merge(chr, 1, Integer::sum);
+            }
+            int wildcards = wordIndexByCell.size() - yellowChars.size();
+            if (wildcards > 0) {
+                countByLetter.put(WILDCARD, wildcards);
             }
+
+            char[] letters = new char[countByLetter.size()];
+            int[] counts = new int[countByLetter.size()];
+            int element = 0;
+            for (Map.Entry<Character, Integer> entry : countByLetter.entrySet()) {
+                letters[element] = entry.getKey();
+                counts[element] = entry.getValue();
+                ++element;
+            }
+
+            boolean[][] allowedByCell = new boolean[wordIndexByCell.size()][letters.length];
+            for (int cell = 0; cell < wordIndexByCell.size(); ++cell) {
+                for (int i = 0; i < letters.length; ++i) {
+                    allowedByCell[cell][i] =
+                        !resultData.wrongCharsByIndex().contains(wordIndexByCell.get(cell), letters[i]);
+                }
+            }
+            return new Elements(letters, counts,
+                wordIndexByCell.stream().mapToInt(Integer::intValue).toArray(), allowedByCell);
+        }
+
+        int cells() {
+            return wordIndexByCell.length;
+        }
+
+        boolean isAllowed(int cell, int element) {
+            return allowedByCell[cell][element];
         }
-        return Collections.unmodifiableMap(knownCharsByIndex);
     }
 
     /**
@@ -0,0 +1,227 @@
+package ch.jalu.wordlehelper.evaluation;
+
+import ch.jalu.wordlehelper.model.Turn;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+/**
+ * Best second guesses for every feedback of a fixed starter word, computed ahead of time so that the second turn of
+ * a game does not need to be scored.
+ * <p>
+ * The book is stored in a binary file. Guesses are saved as indices into the dictionary the book was built with,
+ * so the file contains a fingerprint of the dictionary and is only used with the same dictionary.
+ */
+public class OpeningBook {
+
+    /** Default location of the opening book. */
+    public static final Path DEFAULT_FILE = Paths.get("opening_book.bin");
+
+    /** Maximum number of starters, and of guesses per line, that can be saved in a file. */
+    public static final int MAX_ENTRIES = 255;
+
+    /** Scale of the stored scores, i.e. a score of 1500 corresponds to 1.5. */
+    private static final int SCORE_SCALE = 3;
+
+    private static final int MAGIC = 0x574F4231; // "WOB1"
+
+    private final long dictionaryFingerprint;
+    private final Map<String, BookLine[]> linesByStarter;
+
+    /**
+     * Constructor.
+     *
+     * @param dictionary the dictionary the lines were computed with
+     * @param linesByStarter book lines by starter word, indexed by pattern code (null for patterns without line)
+     */
+    public OpeningBook(List<String> dictionary, Map<String, BookLine[]> linesByStarter) {
+        this(calculateFingerprint(dictionary), linesByStarter);
+        if (linesByStarter.size() > MAX_ENTRIES) {
+            throw new IllegalArgumentException("An opening book can have at most " + MAX_ENTRIES + " starters, got "
+                + linesByStarter.size());
+        }
+        boolean hasTooManyGuesses = linesByStarter.values().stream()
+            .flatMap(Arrays::stream)
+            .anyMatch(line -> line != null && line.guesses().size() > MAX_ENTRIES);
+        if (hasTooManyGuesses) {
+            throw new IllegalArgumentException("A book line can have at most " + MAX_ENTRIES + " guesses");
+        }
+    }
+
+    private OpeningBook(long dictionaryFingerprint, Map<String, BookLine[]> linesByStarter) {
+        this.dictionaryFingerprint = dictionaryFingerprint;
+        this.linesByStarter = linesByStarter;
+    }
+
+    /**
+     * Reads the opening book from the given file if it exists and was built with the given dictionary. A file that
+     * cannot be read (e.g. truncated or not an opening book) is treated like a book of another dictionary.
+     *
+     * @param file the file to read
+     * @param dictionary the current dictionary
+     * @return the opening book, or null if there is no file, or it is invalid or built with a different dictionary
+     */
+    public static OpeningBook loadIfValid(Path file, List<String> dictionary) {
+        if (!Files.exists(file)) {
+            return null;
+        }
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != MAGIC) {
+                return null;
+            }
+            long fingerprint = in.readLong();
+            if (fingerprint != calculateFingerprint(dictionary)) {
+                return null;
+            }
+
+            int starters = in.readUnsignedByte();
+            Map<String, BookLine[]> linesByStarter = new LinkedHashMap<>();
+            for (int i = 0; i < starters; ++i) {
+                String starter = dictionary.get(in.readInt());
+                BookLine[] lines = new BookLine[WordleTurnEvaluator.PATTERN_COUNT];
+                int lineCount = in.readUnsignedByte();
+                for (int j = 0; j < lineCount; ++j) {
+                    int pattern = in.readUnsignedByte();
+                    int candidates = in.readInt();
+                    int guessCount = in.readUnsignedByte();
+                    List<ScoredGuess> guesses = new ArrayList<>(guessCount);
+                    for (int k = 0; k < guessCount; ++k) {
+                        String word = dictionary.get(in.readInt());
+                        guesses.add(new ScoredGuess(word, BigDecimal.valueOf(in.readInt(), SCORE_SCALE)));
+                    }
+                    lines[pattern] = new BookLine(candidates, guesses);
+                }
+                linesByStarter.put(starter, lines);
+            }
+            return new OpeningBook(fingerprint, linesByStarter);
+        } catch (IOException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Writes this book to the given file. The guesses must be part of the given dictionary.
+     *
+     * @param file the file to write to
+     * @param dictionary the dictionary the book was built with
+     */
+    public void write(Path file, List<String> dictionary) {
+        if (dictionaryFingerprint != calculateFingerprint(dictionary)) {
+            throw new IllegalArgumentException("The opening book was not built with the given dictionary");
+        }
+        Map<String, Integer> indexByWord = new HashMap<>(dictionary.size() * 2);
+        for (int i = 0; i < dictionary.size(); ++i) {
+            indexByWord.put(dictionary.get(i), i);
+        }
+
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)))) {
+            out.writeInt(MAGIC);
+            out.writeLong(dictionaryFingerprint);
+            out.writeByte(linesByStarter.size());
+            for (Map.Entry<String, BookLine[]> entry : linesByStarter.entrySet()) {
+                out.writeInt(indexByWord.get(entry.getKey()));
+                BookLine[] lines = entry.getValue();
+                out.writeByte((int) Arrays.stream(lines).filter(Objects::nonNull).count());
+                for (int pattern = 0; pattern < lines.length; ++pattern) {
+                    BookLine line = lines[pattern];
+                    if (line != null) {
+                        out.writeByte(pattern);
+                        out.writeInt(line.candidates());
+                        out.writeByte(line.guesses().size());
+                        for (ScoredGuess guess : line.guesses()) {
+                            out.writeInt(indexByWord.get(guess.word()));
+                            out.writeInt(guess.score().movePointRight(SCORE_SCALE).intValueExact());
+                        }
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Returns the book line for the given turns, or null if the turns are not covered by the book. Only games with
+     * exactly one turn whose word is a starter of the book are covered.
+     *
+     * @param turns the played turns
+     * @return the matching book line, or null
+     */
+    public BookLine getLine(List<Turn> turns) {
+        if (turns.size() != 1) {
+            return null;
+        }
+        Turn turn = turns.get(0);
+        String word = turn.getCells().stream()
+            .map(cell -> String.valueOf(cell.character()))
+            .collect(Collectors.joining());
+        BookLine[] lines = linesByStarter.get(word);
+        return lines == null ? null : lines[WordleTurnEvaluator.encodePattern(turn)];
+    }
+
+    public List<String> getStarters() {
+        return List.copyOf(linesByStarter.keySet());
+    }
+
+    /**
+     * Computes a fingerprint of the dictionary (64-bit FNV-1a hash over the words in their order).
+     *
+     * @param dictionary the words
+     * @return the fingerprint
+     */
+    public static long calculateFingerprint(List<String> dictionary) {
+        long hash = 0xcbf29ce484222325L;
+        for (String word : dictionary) {
+            for (int i = 0; i < word.length(); ++i) {
+                hash = (hash ^ word.charAt(i)) * 0x100000001b3L;
+            }
+            hash = (hash ^ '\n') * 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    /**
+     * Best guesses after a feedback of a starter word.
+     *
+     * @param candidates number of words that are possible after the feedback
+     * @param guesses the best guesses, best first
+     */
+    public record BookLine(int candidates, List<ScoredGuess> guesses) {
+
+        public BookLine {
+            guesses = Collections.unmodifiableList(new ArrayList<>(guesses));
+        }
+    }
+
+    /**
+     * Guess with its score.
+     *
+     * @param word the word to play
+     * @param score the score of the word (entropy in bits)
+     */
+    public record ScoredGuess(String word, BigDecimal score) {
+
+        @Override
+        public String toString() {
+            return word + "=" + score;
+        }
+    }
+}
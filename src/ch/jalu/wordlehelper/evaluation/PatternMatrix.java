@@ -0,0 +1,131 @@
+package ch.jalu.wordlehelper.evaluation;
+
+import ch.jalu.wordlehelper.model.Cell;
+import ch.jalu.wordlehelper.model.WordDictionary;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Holds the feedback pattern of every (guess, answer) pair of a dictionary, so that scorers can look up the
+ * result of a guess instead of evaluating it again.
+ * <p>
+ * Each pattern is stored as pattern code in one byte (see {@link WordleTurnEvaluator#evaluatePattern}). The indices
+ * of the matrix are the word ids of its {@link WordDictionary}.
+ */
+public class PatternMatrix {
+
+    /** Largest dictionary whose matrix still fits into a single array. */
+    private static final int MAX_WORDS = 46_340;
+
+    private final WordDictionary dictionary;
+    private final byte[] patterns;
+
+    private PatternMatrix(WordDictionary dictionary, byte[] patterns) {
+        this.dictionary = dictionary;
+        this.patterns = patterns;
+    }
+
+    /**
+     * Evaluates all word pairs of the given list in parallel and returns the resulting matrix.
+     *
+     * @param words the words (used as guesses and as answers)
+     * @param turnEvaluator the turn evaluator to compute the feedback with
+     * @return the pattern matrix
+     */
+    public static PatternMatrix build(List<String> words, WordleTurnEvaluator turnEvaluator) {
+        return build(WordDictionary.of(words), turnEvaluator);
+    }
+
+    /**
+     * Evaluates all word pairs of the given dictionary in parallel and returns the resulting matrix.
+     *
+     * @param dictionary the dictionary (its words are used as guesses and as answers)
+     * @param turnEvaluator the turn evaluator to compute the feedback with
+     * @return the pattern matrix
+     */
+    public static PatternMatrix build(WordDictionary dictionary, WordleTurnEvaluator turnEvaluator) {
+        int size = dictionary.size();
+        if (size > MAX_WORDS) {
+            throw new IllegalArgumentException("Cannot build pattern matrix for more than " + MAX_WORDS + " words");
+        }
+
+        byte[] patterns = new byte[size * size];
+        IntStream.range(0, size).parallel().forEach(guessId -> {
+            int packedGuess = dictionary.getPackedWord(guessId);
+            int offset = guessId * size;
+            for (int answerId = 0; answerId < size; ++answerId) {
+                patterns[offset + answerId] =
+                    (byte) turnEvaluator.evaluatePattern(packedGuess, dictionary.getPackedWord(answerId));
+            }
+        });
+        return new PatternMatrix(dictionary, patterns);
+    }
+
+    public WordDictionary getDictionary() {
+        return dictionary;
+    }
+
+    public List<String> getWords() {
+        return dictionary.getWords();
+    }
+
+    public int size() {
+        return dictionary.size();
+    }
+
+    /**
+     * Returns the index of the given word in this matrix, or -1 if the word is unknown.
+     *
+     * @param word the word to look up
+     * @return the word's index, or -1
+     */
+    public int indexOf(String word) {
+        return dictionary.getId(word);
+    }
+
+    public int getPattern(int guessIndex, int answerIndex) {
+        return patterns[guessIndex * dictionary.size() + answerIndex] & 0xFF;
+    }
+
+    public int getPattern(String guess, String answer) {
+        return getPattern(requireIndex(guess), requireIndex(answer));
+    }
+
+    /**
+     * Returns the cells the given guess produces for the answer.
+     *
+     * @param guess the played word
+     * @param answer the correct word
+     * @return the cells (feedback) of the guess
+     */
+    public List<Cell> getCells(String guess, String answer) {
+        return WordleTurnEvaluator.decodeCells(guess, getPattern(guess, answer));
+    }
+
+    /**
+     * Returns the cells that correspond to the given pattern for the guess with the given index.
+     *
+     * @param guessIndex index of the played word
+     * @param pattern the pattern code
+     * @return the cells with the guess's letters and the pattern's colors
+     */
+    public List<Cell> getCells(int guessIndex, int pattern) {
+        return WordleTurnEvaluator.decodeCells(dictionary.getWord(guessIndex), pattern);
+    }
+
+    /**
+     * Returns the indices of the given words in this matrix.
+     *
+     * @param words the words to look up (must all be part of the matrix)
+     * @return array with the index of each word
+     */
+    public int[] toIndices(Collection<String> words) {
+        return dictionary.toIds(words);
+    }
+
+    public int requireIndex(String word) {
+        return dictionary.requireId(word);
+    }
+}
@@ -0,0 +1,269 @@
+package ch.jalu.wordlehelper.evaluation;
+
+import ch.jalu.wordlehelper.evaluation.OpeningBook.ScoredGuess;
+import ch.jalu.wordlehelper.model.WordDictionary;
+import ch.jalu.wordlehelper.util.LruCache;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Caches the rankings of guesses by the set of candidates they were computed for. Rankings only depend on the words
+ * that are still possible, so all game states that leave the same candidates share an entry, regardless of the turns
+ * that led to them. The candidate set, given as ascending word ids of a {@link WordDictionary}, is the key.
+ * <p>
+ * Rankings are kept in an in-memory {@link LruCache} with limits on the number of entries and on their weight (the
+ * number of candidate ids and guesses). Optionally, rankings are also saved in a directory with one file per
+ * candidate set, so that they survive restarts; files of another dictionary are ignored. Two threads that miss the
+ * same key at the same time both compute the ranking.
+ */
+public class RankingCache {
+
+    private static final int MAGIC = 0x57524331; // "WRC1"
+    /** Scale of the stored scores, i.e. a score of 1500 corresponds to 1.5. */
+    private static final int SCORE_SCALE = 3;
+
+    private final WordDictionary dictionary;
+    private final long dictionaryFingerprint;
+    private final LruCache<CandidateSet, List<ScoredGuess>> memoryCache;
+    private final Path directory;
+
+    private final LongAdder memoryHits = new LongAdder();
+    private final LongAdder diskHits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder diskWriteFailures = new LongAdder();
+
+    /**
+     * Constructor.
+     *
+     * @param dictionary the dictionary the candidate ids and guesses refer to
+     * @param maxEntries maximum number of rankings to keep in memory
+     * @param maxWeight maximum number of candidate ids and guesses to keep in memory
+     * @param directory directory to save the rankings in, or null to only cache in memory
+     */
+    public RankingCache(WordDictionary dictionary, int maxEntries, long maxWeight, Path directory) {
+        this.dictionary = dictionary;
+        this.dictionaryFingerprint = OpeningBook.calculateFingerprint(dictionary.getWords());
+        this.memoryCache = new LruCache<>(maxEntries, maxWeight,
+            (candidates, ranking) -> candidates.ids.length + ranking.size());
+        this.directory = directory;
+        if (directory != null) {
+            try {
+                Files.createDirectories(directory);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    /**
+     * Returns the cached ranking of the given candidates, or computes and caches it if it is not present.
+     *
+     * @param candidateIds ids of the candidates in ascending order
+     * @param ranker supplier computing the ranking (best guess first)
+     * @return the ranking and where it was found
+     */
+    public Lookup get(int[] candidateIds, Supplier<List<ScoredGuess>> ranker) {
+        CandidateSet key = new CandidateSet(candidateIds);
+        List<ScoredGuess> ranking = memoryCache.get(key);
+        if (ranking != null) {
+            memoryHits.increment();
+            return new Lookup(ranking, Source.MEMORY);
+        }
+
+        ranking = directory == null ? null : readFile(key);
+        if (ranking != null) {
+            diskHits.increment();
+            memoryCache.put(key, ranking);
+            return new Lookup(ranking, Source.DISK);
+        }
+
+        misses.increment();
+        ranking = List.copyOf(ranker.get());
+        memoryCache.put(key, ranking);
+        if (directory != null) {
+            writeFile(key, ranking);
+        }
+        return new Lookup(ranking, Source.COMPUTED);
+    }
+
+    /**
+     * @return the hit and miss counts and the size of the in-memory tier
+     */
+    public Stats getStats() {
+        return new Stats(memoryHits.sum(), diskHits.sum(), misses.sum(), diskWriteFailures.sum(),
+            memoryCache.size(), memoryCache.getWeight());
+    }
+
+    private Path getFile(CandidateSet key) {
+        return directory.resolve(String.format("%016x.bin", key.fingerprint));
+    }
+
+    /**
+     * Reads the ranking of the given candidates from its file; returns null if there is no file, if it belongs
+     * to another dictionary or candidate set (same fingerprint), or if it cannot be read (e.g. truncated), so that
+     * the ranking is computed again and the file is replaced.
+     */
+    private List<ScoredGuess> readFile(CandidateSet key) {
+        Path file = getFile(key);
+        if (!Files.isRegularFile(file)) {
+            return null;
+        }
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != MAGIC || in.readLong() != dictionaryFingerprint
+                || in.readInt() != key.ids.length) {
+                return null;
+            }
+            for (int id : key.ids) {
+                if (in.readInt() != id) {
+                    return null;
+                }
+            }
+            int guessCount = in.readInt();
+            List<ScoredGuess> ranking = new ArrayList<>(guessCount);
+            for (int i = 0; i < guessCount; ++i) {
+                String word = dictionary.getWord(in.readInt());
+                ranking.add(new ScoredGuess(word, BigDecimal.valueOf(in.readInt(), SCORE_SCALE)));
+            }
+            return List.copyOf(ranking);
+        } catch (IOException | RuntimeException e) {
+            // e.g. a truncated file or an unknown word id: compute the ranking again, which replaces the file
+            return null;
+        }
+    }
+
+    /**
+     * Saves the ranking of the given candidates to its file. If it cannot be saved (e.g. the disk is full or the
+     * directory is read-only), the failure is counted and the ranking is only kept in memory, like with a cache
+     * without directory; the temporary file is always removed.
+     */
+    private void writeFile(CandidateSet key, List<ScoredGuess> ranking) {
+        Path file = getFile(key);
+        Path tempFile = null;
+        try {
+            // Write to a temporary file first, so that other threads and processes never read a partial file
+            tempFile = Files.createTempFile(directory, "ranking", ".tmp");
+            try (DataOutputStream out =
+                     new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tempFile)))) {
+                out.writeInt(MAGIC);
+                out.writeLong(dictionaryFingerprint);
+                out.writeInt(key.ids.length);
+                for (int id : key.ids) {
+                    out.writeInt(id);
+                }
+                out.writeInt(ranking.size());
+                for (ScoredGuess guess : ranking) {
+                    out.writeInt(dictionary.requireId(guess.word()));
+                    out.writeInt(guess.score().setScale(SCORE_SCALE).unscaledValue().intValueExact());
+                }
+            }
+            Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            diskWriteFailures.increment();
+            System.err.println("Could not save ranking to " + file + ": " + e);
+        } finally {
+            deleteTempFile(tempFile);
+        }
+    }
+
+    private static void deleteTempFile(Path tempFile) {
+        // Nothing is left to delete if the file was moved into place or could not be created
+        if (tempFile != null) {
+            try {
+                Files.deleteIfExists(tempFile);
+            } catch (IOException e) {
+                System.err.println("Could not delete " + tempFile + ": " + e);
+            }
+        }
+    }
+
+    /**
+     * Set of candidates, identified by their ascending word ids.
+     */
+    private static final class CandidateSet {
+
+        private final int[] ids;
+        /** 64-bit FNV-1a hash of the ids, used as hash code and as file name. */
+        private final long fingerprint;
+
+        CandidateSet(int[] ids) {
+            this.ids = ids;
+            long hash = 0xcbf29ce484222325L;
+            for (int id : ids) {
+                hash = (hash ^ id) * 0x100000001b3L;
+            }
+            this.fingerprint = hash;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            return obj instanceof CandidateSet other && fingerprint == other.fingerprint
+                && Arrays.equals(ids, other.ids);
+        }
+
+        @Override
+        public int hashCode() {
+            return Long.hashCode(fingerprint);
+        }
+    }
+
+    /**
+     * Where a ranking was found.
+     */
+    public enum Source {
+
+        /** Found in the in-memory tier. */
+        MEMORY,
+
+        /** Read from the directory. */
+        DISK,
+
+        /** Not cached: the ranking was computed. */
+        COMPUTED
+
+    }
+
+    /**
+     * Result of a cache lookup.
+     *
+     * @param ranking the guesses, best first
+     * @param source where the ranking was found
+     */
+    public record Lookup(List<ScoredGuess> ranking, Source source) {
+    }
+
+    /**
+     * Statistics of the cache.
+     *
+     * @param memoryHits number of lookups answered from memory
+     * @param diskHits number of lookups answered from the directory
+     * @param misses number of lookups whose ranking had to be computed
+     * @param diskWriteFailures number of computed rankings that could not be saved in the directory
+     * @param entries number of rankings in memory
+     * @param weight total weight of the rankings in memory
+     */
+    public record Stats(long memoryHits, long diskHits, long misses, long diskWriteFailures, int entries,
+                        long weight) {
+
+        @Override
+        public String toString() {
+            return "memory hits: " + memoryHits + ", disk hits: " + diskHits + ", misses: " + misses
+                + ", disk write failures: " + diskWriteFailures
+                + " (" + entries + " entries in memory, weight " + weight + ")";
+        }
+    }
+}
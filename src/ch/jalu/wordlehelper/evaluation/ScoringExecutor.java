@@ -0,0 +1,126 @@
+package ch.jalu.wordlehelper.evaluation;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Runs scoring loops over a range of word indices, either on the calling thread or split into chunks on a
+ * {@link ForkJoinPool}. Each chunk is processed by one call to {@link RangeTask#run}, so buffers and accumulators
+ * created inside the task are local to the thread. Tasks should write their results into arrays indexed by word so
+ * that the outcome is the same regardless of how the range was split.
+ */
+public class ScoringExecutor implements AutoCloseable {
+
+    /** Ranges smaller than this are not split further. */
+    private static final int MIN_CHUNK_SIZE = 64;
+
+    private final ForkJoinPool pool;
+    private final int parallelism;
+
+    private ScoringExecutor(ForkJoinPool pool, int parallelism) {
+        this.pool = pool;
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Returns an executor that runs all tasks on the calling thread.
+     *
+     * @return serial executor
+     */
+    public static ScoringExecutor serial() {
+        return new ScoringExecutor(null, 1);
+    }
+
+    /**
+     * Creates an executor backed by a new fork/join pool with the given parallelism. A parallelism of 1 or less
+     * results in a serial executor.
+     *
+     * @param parallelism the number of threads to use
+     * @return the executor
+     */
+    public static ScoringExecutor withParallelism(int parallelism) {
+        if (parallelism <= 1) {
+            return serial();
+        }
+        return new ScoringExecutor(new ForkJoinPool(parallelism), parallelism);
+    }
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    public boolean isParallel() {
+        return pool != null;
+    }
+
+    /**
+     * Runs the task for all indices from 0 (inclusive) to {@code size} (exclusive). Returns once the entire range
+     * has been processed.
+     *
+     * @param size the number of elements to process
+     * @param task the task to run for each chunk
+     */
+    public void forEachRange(int size, RangeTask task) {
+        if (pool == null || size <= MIN_CHUNK_SIZE) {
+            task.run(0, size);
+        } else {
+            int chunkSize = Math.max(MIN_CHUNK_SIZE, size / (parallelism * 4));
+            pool.invoke(new RangeAction(task, 0, size, chunkSize));
+        }
+    }
+
+    @Override
+    public void close() {
+        if (pool != null) {
+            pool.shutdown();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return pool == null ? "serial" : "parallel (" + parallelism + " threads)";
+    }
+
+    /**
+     * Task that processes a chunk of indices.
+     */
+    @FunctionalInterface
+    public interface RangeTask {
+
+        /**
+         * Processes the indices from {@code from} (inclusive) to {@code to} (exclusive).
+         *
+         * @param from first index to process
+         * @param to end index (exclusive)
+         */
+        void run(int from, int to);
+    }
+
+    private static final class RangeAction extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final RangeTask task;
+        private final int from;
+        private final int to;
+        private final int chunkSize;
+
+        RangeAction(RangeTask task, int from, int to, int chunkSize) {
+            this.task = task;
+            this.from = from;
+            this.to = to;
+            this.chunkSize = chunkSize;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= chunkSize) {
+                task.run(from, to);
+            } else {
+                int middle = (from + to) >>> 1;
+                invokeAll(new RangeAction(task, from, middle, chunkSize),
+                          new RangeAction(task, middle, to, chunkSize));
+            }
+        }
+    }
+}
@@ -1,98 +1,79 @@
 package ch.jalu.wordlehelper.evaluation;
 
-import ch.jalu.wordlehelper.model.Cell;
-import ch.jalu.wordlehelper.model.Color;
-import ch.jalu.wordlehelper.model.WordleResultData;
-import ch.jalu.wordlehelper.model.predicate.CharCountPredicate;
-import ch.jalu.wordlehelper.model.predicate.MinimumCountPredicate;
-import ch.jalu.wordlehelper.util.HashSetMultimap;
+import ch.jalu.wordlehelper.util.TopKeysCollector;
 
 import java.math.BigDecimal;
-import java.util.HashMap;
+import java.util.Arrays;
 import java.util.List;
-import java.util.Map;
 import java.util.TreeMap;
 
-import static ch.jalu.wordlehelper.util.CollectionUtil.invertMap;
-import static ch.jalu.wordlehelper.util.CollectionUtil.retainTopKeys;
-
 public final class SplitterWordFinder {
 
     private SplitterWordFinder() {
     }
 
-    public static TreeMap<BigDecimal, List<String>> split(List<String> allWords, WordleResultData resultData,
-                                                          WordleTurnEvaluator turnEvaluator, boolean tryAllWords) {
-        List<String> possibleResults = allWords.stream()
-            .filter(resultData::matches)
-            .toList();
+    public static TreeMap<BigDecimal, List<String>> split(List<String> allWords, List<String> possibleResults,
+                                                          PatternMatrix patternMatrix, boolean tryAllWords) {
+        return split(allWords, possibleResults, patternMatrix, tryAllWords, () -> { });
+    }
 
+    public static TreeMap<BigDecimal, List<String>> split(List<String> allWords, List<String> possibleResults,
+                                                          PatternMatrix patternMatrix, boolean tryAllWords,
+                                                          Runnable cancellationCheck) {
         if (tryAllWords) {
-            return split0(allWords, possibleResults, resultData, turnEvaluator);
+            return split0(allWords, possibleResults, patternMatrix, cancellationCheck);
         }
-        return split0(possibleResults, possibleResults, resultData, turnEvaluator);
+        return split0(possibleResults, possibleResults, patternMatrix, cancellationCheck);
     }
 
+    /**
+     * Scores each word by the number of words that would remain possible after playing it, summed over all possible
+     * results (not counting the result itself). Lower is better.
+     * <p>
+     * For a played word, the possible results that produce the same pattern form a bucket: if the actual result is
+     * in a bucket of size {@code c}, then {@code c - 1} other words remain. Summed over all results this is
+     * {@code sum(c * (c - 1))} over all buckets, so every word is scored with one pass over the possible results.
+     *
+     * @param wordsToTry the words to score
+     * @param possibleResults the words that are still possible
+     * @param patternMatrix pattern matrix containing all given words
+     * @return words by score (the 20 lowest scores)
+     */
     public static TreeMap<BigDecimal, List<String>> split0(List<String> wordsToTry, List<String> possibleResults,
-                                                       WordleResultData resultData, WordleTurnEvaluator turnEvaluator) {
-        if (possibleResults.size() > 50) {
-            throw new IllegalStateException("Cannot have more than 50 possible results");
-        }
-
-        Map<String, BigDecimal> countByWord = new HashMap<>();
-        for (String word : wordsToTry) {
-            long matches = 0;
-            for (String result : possibleResults) {
-                List<Cell> cells = turnEvaluator.evaluateCells(word, result);
-                WordleResultData newResultData = newDataWithCells(resultData, cells);
-
-                matches += (possibleResults.stream().filter(newResultData::matches).count() - 1);
-            }
-            countByWord.put(word, BigDecimal.valueOf(matches));
-        }
-
-        return retainTopKeys(invertMap(countByWord), 20);
+                                                           PatternMatrix patternMatrix) {
+        return split0(wordsToTry, possibleResults, patternMatrix, () -> { });
     }
 
-    private static WordleResultData newDataWithCells(WordleResultData currentData, List<Cell> cells) {
-        Character[] newKnownCharsByIndex = currentData.knownCharactersByIndex().clone();
-        Map<Character, CharCountPredicate> newPredicatesByChar = new HashMap<>();
-        HashSetMultimap<Integer, Character> oldWrongCharsByIndex = currentData.wrongCharsByIndex();
-        HashSetMultimap<Integer, Character> copyWrongCharsByIndex = null;
+    /**
+     * Scores the words like {@link #split0(List, List, PatternMatrix)}, running the given cancellation check before
+     * each word is scored so that the scoring can be aborted by throwing from it.
+     *
+     * @param wordsToTry the words to score
+     * @param possibleResults the words that are still possible
+     * @param patternMatrix pattern matrix containing all given words
+     * @param cancellationCheck run before each word; throws to abort the scoring
+     * @return words by score (the 20 lowest scores)
+     */
+    public static TreeMap<BigDecimal, List<String>> split0(List<String> wordsToTry, List<String> possibleResults,
+                                                           PatternMatrix patternMatrix, Runnable cancellationCheck) {
+        int[] resultIndices = patternMatrix.toIndices(possibleResults);
+        int[] countByPattern = new int[WordleTurnEvaluator.PATTERN_COUNT];
 
-        for (int i = 0; i < cells.size(); ++i) {
-            Cell cell = cells.get(i);
-            if (cell.color() == Color.GREEN) {
-                newKnownCharsByIndex[i] = cell.character();
-            } else  if (cell.color() == Color.GRAY) {
-                if (copyWrongCharsByIndex != null || !oldWrongCharsByIndex.contains(i, cell.character())) {
-                    if (copyWrongCharsByIndex == null) {
-                        copyWrongCharsByIndex = copyHashSetMultimap(oldWrongCharsByIndex);
-                    }
-                    copyWrongCharsByIndex.put(i, cell.character());
-                }
+        TopKeysCollector<BigDecimal, String> wordsByCount = TopKeysCollector.lowest(20);
+        for (String word : wordsToTry) {
+            cancellationCheck.run();
+            int wordIndex = patternMatrix.requireIndex(word);
+            Arrays.fill(countByPattern, 0);
+            for (int resultIndex : resultIndices) {
+                ++countByPattern[patternMatrix.getPattern(wordIndex, resultIndex)];
             }
 
-            CharCountPredicate newPredicate = newPredicatesByChar.computeIfAbsent(
-                    cell.character(), v -> MinimumCountPredicate.of(0)).update(cell.color());
-            newPredicatesByChar.put(cell.character(), newPredicate);
+            long matches = 0;
+            for (int count : countByPattern) {
+                matches += (long) count * (count - 1);
+            }
+            wordsByCount.add(BigDecimal.valueOf(matches), word);
         }
-
-        currentData.predicatesByChar().forEach((chr, pred) -> {
-            newPredicatesByChar.merge(chr, pred, CharCountPredicate::merge);
-        });
-
-        return new WordleResultData(
-                newKnownCharsByIndex,
-                (copyWrongCharsByIndex == null ? oldWrongCharsByIndex : copyWrongCharsByIndex),
-                newPredicatesByChar);
-    }
-
-    private static HashSetMultimap<Integer, Character> copyHashSetMultimap(HashSetMultimap<Integer, Character> original) {
-        HashSetMultimap<Integer, Character> copy = new HashSetMultimap<>();
-        original.getBackingMap().forEach((key, values) -> {
-            values.forEach(value -> copy.put(key, value));
-        });
-        return copy;
+        return wordsByCount.getBackingMap();
     }
 }
@@ -0,0 +1,194 @@
+package ch.jalu.wordlehelper.evaluation;
+
+import ch.jalu.wordlehelper.model.WordDictionary;
+import ch.jalu.wordlehelper.model.WordMatcher;
+import ch.jalu.wordlehelper.model.WordleResultData;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static ch.jalu.wordlehelper.Constants.WORD_LENGTH;
+
+/**
+ * Inverted index over the words of a dictionary that filters words with bitwise operations. For every position and
+ * letter, and for every letter and count, there is a bitset of the word ids that have the letter at the position,
+ * or that have the letter at least the given number of times. A {@link WordleResultData} is answered by combining
+ * these bitsets with AND and AND NOT, so 64 words are checked per operation.
+ * <p>
+ * Candidates are returned as bitset ({@code long[]}, bit {@code id % 64} of entry {@code id / 64}); use
+ * {@link #count} to get the number of candidates without creating a list. The index is immutable and can be used by
+ * multiple threads.
+ */
+public class WordBitsetIndex {
+
+    private final WordDictionary dictionary;
+    /** Words with the letter at the position, by {@code position * 26 + letter}. */
+    private final long[][] byPositionAndLetter;
+    /** Words with the letter at least {@code count} times, by {@code letter * WORD_LENGTH + count - 1}. */
+    private final long[][] byLetterAndMinCount;
+    private final long[] allWords;
+
+    private WordBitsetIndex(WordDictionary dictionary, long[][] byPositionAndLetter, long[][] byLetterAndMinCount,
+                            long[] allWords) {
+        this.dictionary = dictionary;
+        this.byPositionAndLetter = byPositionAndLetter;
+        this.byLetterAndMinCount = byLetterAndMinCount;
+        this.allWords = allWords;
+    }
+
+    /**
+     * Builds the index of the given dictionary.
+     *
+     * @param dictionary the dictionary whose words should be indexed
+     * @return the index
+     */
+    public static WordBitsetIndex build(WordDictionary dictionary) {
+        int longs = (dictionary.size() + 63) >>> 6;
+        long[][] byPositionAndLetter = new long[WORD_LENGTH * 26][longs];
+        long[][] byLetterAndMinCount = new long[26 * WORD_LENGTH][longs];
+        long[] allWords = new long[longs];
+
+        int[] countByLetter = new int[26];
+        for (int id = 0; id < dictionary.size(); ++id) {
+            int packedWord = dictionary.getPackedWord(id);
+            long bit = 1L << id;
+            for (int i = 0; i < WORD_LENGTH; ++i) {
+                int letter = WordDictionary.getLetter(packedWord, i);
+                byPositionAndLetter[i * 26 + letter][id >>> 6] |= bit;
+                ++countByLetter[letter];
+                byLetterAndMinCount[letter * WORD_LENGTH + countByLetter[letter] - 1][id >>> 6] |= bit;
+            }
+            for (int i = 0; i < WORD_LENGTH; ++i) {
+                countByLetter[WordDictionary.getLetter(packedWord, i)] = 0;
+            }
+            allWords[id >>> 6] |= bit;
+        }
+        return new WordBitsetIndex(dictionary, byPositionAndLetter, byLetterAndMinCount, allWords);
+    }
+
+    public WordDictionary getDictionary() {
+        return dictionary;
+    }
+
+    /**
+     * Returns the bitset of the words that match the given result data.
+     *
+     * @param resultData the result data
+     * @return bitset of the matching word ids
+     */
+    public long[] filter(WordleResultData resultData) {
+        return filter(resultData, allWords);
+    }
+
+    /**
+     * Returns the bitset of the words of the given bitset that match the given result data. Only the entries of the
+     * bitset that have a word are combined with the index, so a small set of candidates is filtered quickly.
+     *
+     * @param resultData the result data
+     * @param candidates bitset of the words to filter (not modified)
+     * @return bitset of the matching word ids
+     */
+    public long[] filter(WordleResultData resultData, long[] candidates) {
+        WordMatcher matcher = resultData.compile();
+        List<long[]> required = new ArrayList<>();
+        List<long[]> excluded = new ArrayList<>();
+
+        for (int i = 0; i < WORD_LENGTH; ++i) {
+            int allowedLetters = matcher.getAllowedLetters(i);
+            if (Integer.bitCount(allowedLetters) == 1) {
+                required.add(byPositionAndLetter[i * 26 + Integer.numberOfTrailingZeros(allowedLetters)]);
+            } else {
+                int excludedLetters = ~allowedLetters & WordMatcher.ALL_LETTERS;
+                for (int letter = 0; letter < 26; ++letter) {
+                    if ((excludedLetters & (1 << letter)) != 0) {
+                        excluded.add(byPositionAndLetter[i * 26 + letter]);
+                    }
+                }
+            }
+        }
+        for (int c = 0; c < matcher.getConstrainedLetterCount(); ++c) {
+            int letter = matcher.getConstrainedLetter(c);
+            if (matcher.getMinCount(c) > 0) {
+                required.add(byLetterAndMinCount[letter * WORD_LENGTH + matcher.getMinCount(c) - 1]);
+            }
+            if (matcher.getMaxCount(c) < WORD_LENGTH) {
+                excluded.add(byLetterAndMinCount[letter * WORD_LENGTH + matcher.getMaxCount(c)]);
+            }
+        }
+
+        // Combine all bitsets in one pass over the words, so that no intermediate bitset is needed
+        long[][] requiredSets = required.toArray(long[][]::new);
+        long[][] excludedSets = excluded.toArray(long[][]::new);
+        long[] result = new long[allWords.length];
+        for (int w = 0; w < result.length; ++w) {
+            long bits = candidates[w];
+            if (bits == 0) {
+                continue;
+            }
+            for (long[] set : requiredSets) {
+                bits &= set[w];
+            }
+            for (long[] set : excludedSets) {
+                bits &= ~set[w];
+            }
+            result[w] = bits;
+        }
+        return result;
+    }
+
+    /**
+     * Returns the ids of the words in the given bitset, in ascending order.
+     *
+     * @param bitset the bitset (as returned by {@link #filter})
+     * @return the word ids
+     */
+    public static int[] toIds(long[] bitset) {
+        int[] ids = new int[count(bitset)];
+        int index = 0;
+        for (int w = 0; w < bitset.length; ++w) {
+            for (long bits = bitset[w]; bits != 0; bits &= bits - 1) {
+                ids[index] = (w << 6) + Long.numberOfTrailingZeros(bits);
+                ++index;
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * Returns the words in the given bitset, in the order of the dictionary.
+     *
+     * @param bitset the bitset (as returned by {@link #filter})
+     * @return the words
+     */
+    public List<String> toWords(long[] bitset) {
+        return Arrays.stream(toIds(bitset))
+            .mapToObj(dictionary::getWord)
+            .toList();
+    }
+
+    /**
+     * Returns the number of words in the given bitset.
+     *
+     * @param bitset the bitset
+     * @return number of set bits
+     */
+    public static int count(long[] bitset) {
+        int count = 0;
+        for (long bits : bitset) {
+            count += Long.bitCount(bits);
+        }
+        return count;
+    }
+
+    /**
+     * Returns whether the word with the given id is in the bitset.
+     *
+     * @param bitset the bitset
+     * @param id the word id
+     * @return true if the bit of the id is set
+     */
+    public static boolean contains(long[] bitset, int id) {
+        return (bitset[id >>> 6] & (1L << id)) != 0;
+    }
+}
@@ -1,76 +1,223 @@
 package ch.jalu.wordlehelper.evaluation;
 
 import ch.jalu.wordlehelper.model.Cell;
+import ch.jalu.wordlehelper.model.Color;
+import ch.jalu.wordlehelper.model.Turn;
+import ch.jalu.wordlehelper.model.WordDictionary;
 
-import java.math.BigDecimal;
-import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.List;
 
 import static ch.jalu.wordlehelper.Constants.WORD_LENGTH;
 
+/**
+ * Evaluates played words against a result.
+ * <p>
+ * Besides {@link Cell} lists, the feedback can be computed as a <i>pattern code</i>: a base-3 number in which the
+ * i-th digit is the color of the cell at index {@code i}, with gray = 0, yellow = 1 and green = 2. The code fits into
+ * a byte and is computed without any allocations, which makes it suitable for scoring loops.
+ */
 public class WordleTurnEvaluator {
 
-    private final BigDecimal scoreGreen  = BigDecimal.ONE;
-    private final BigDecimal scoreYellow = new BigDecimal("0.5");
-    private final BigDecimal scoreGray   = new BigDecimal("0.1");
+    /** Number of distinct pattern codes (3 ^ WORD_LENGTH). */
+    public static final int PATTERN_COUNT = 243;
 
-    public BigDecimal calculateScore(String playedWord, String correctWord) {
-        int[] stats = evaluate0(playedWord, correctWord);
-        return (BigDecimal.valueOf(stats[0]).multiply(scoreGreen))
-           .add(BigDecimal.valueOf(stats[1]).multiply(scoreYellow))
-           .add(BigDecimal.valueOf(stats[2]).multiply(scoreGray));
+    /** Pattern code of a word that was guessed correctly. */
+    public static final int ALL_GREEN_PATTERN = PATTERN_COUNT - 1;
+
+    /** Number of decimal places of the scores, i.e. a score of 15 corresponds to 1.5. */
+    public static final int SCORE_SCALE = 1;
+
+    private static final int DIGIT_GRAY = 0;
+    private static final int DIGIT_YELLOW = 1;
+    private static final int DIGIT_GREEN = 2;
+
+    private static final int[] POWERS_OF_THREE = { 1, 3, 9, 27, 81 };
+
+    private final long scoreGreen  = 10;
+    private final long scoreYellow = 5;
+    private final long scoreGray   = 1;
+
+    private final long[] scoreByPattern = createScoreByPattern();
+
+    /**
+     * Calculates the score of the played word based on the colors it results in. The score is scaled by
+     * {@link #SCORE_SCALE} so it can be summed up exactly.
+     *
+     * @param playedWord the played word
+     * @param correctWord the correct word
+     * @return the scaled score
+     */
+    public long calculateScore(String playedWord, String correctWord) {
+        return scoreByPattern[evaluatePattern(playedWord, correctWord)];
+    }
+
+    /**
+     * Calculates the score like {@link #calculateScore(String, String)} for a feedback that is given as pattern
+     * code.
+     *
+     * @param pattern the pattern code
+     * @return the scaled score of the pattern
+     */
+    public long calculateScore(int pattern) {
+        return scoreByPattern[pattern];
     }
 
     public List<Cell> evaluateCells(String playedWord, String result) {
-        Cell[] cells = new Cell[WORD_LENGTH];
-        List<Character> resultNonMatchedChars = new ArrayList<>(WORD_LENGTH);
+        return decodeCells(playedWord, evaluatePattern(playedWord, result));
+    }
 
+    /**
+     * Evaluates the played word against the result and returns the feedback as pattern code. Letters that appear
+     * multiple times in the played word are yellow from left to right as long as the result has unmatched
+     * occurrences of it; this method does not allocate any objects.
+     *
+     * @param playedWord the played word
+     * @param result the correct word
+     * @return the pattern code of the feedback
+     */
+    public int evaluatePattern(String playedWord, String result) {
+        int greenMask = 0;
         for (int i = 0; i < WORD_LENGTH; ++i) {
-            char playedChar = playedWord.charAt(i);
-            char resultChar = result.charAt(i);
-            if (playedChar == resultChar) {
-                cells[i] = Cell.green(playedChar);
+            if (playedWord.charAt(i) == result.charAt(i)) {
+                greenMask |= 1 << i;
+            }
+        }
+
+        int pattern = 0;
+        int yellowMask = 0;
+        for (int i = 0; i < WORD_LENGTH; ++i) {
+            if ((greenMask & (1 << i)) != 0) {
+                pattern += DIGIT_GREEN * POWERS_OF_THREE[i];
             } else {
-                resultNonMatchedChars.add(resultChar);
+                char playedChar = playedWord.charAt(i);
+                if (countUnmatched(result, playedChar, greenMask) > countYellow(playedWord, playedChar, i, yellowMask)) {
+                    yellowMask |= 1 << i;
+                    pattern += DIGIT_YELLOW * POWERS_OF_THREE[i];
+                }
+            }
+        }
+        return pattern;
+    }
+
+    /**
+     * Evaluates the played word against the result like {@link #evaluatePattern(String, String)}, with both words
+     * given as packed words (see {@link WordDictionary}).
+     *
+     * @param packedPlayedWord the played word, packed
+     * @param packedResult the correct word, packed
+     * @return the pattern code of the feedback
+     */
+    public int evaluatePattern(int packedPlayedWord, int packedResult) {
+        int pattern = 0;
+        int greenMask = 0;
+        for (int i = 0; i < WORD_LENGTH; ++i) {
+            if (WordDictionary.getLetter(packedPlayedWord, i) == WordDictionary.getLetter(packedResult, i)) {
+                greenMask |= 1 << i;
+                pattern += DIGIT_GREEN * POWERS_OF_THREE[i];
             }
         }
 
+        // Positions of the result that are neither green nor matched by a yellow cell to the left
+        int unmatchedMask = ~greenMask & ((1 << WORD_LENGTH) - 1);
         for (int i = 0; i < WORD_LENGTH; ++i) {
-            if (cells[i] == null) {
-                Character playedChar = playedWord.charAt(i);
-                boolean isYellow = resultNonMatchedChars.remove(playedChar);
-                cells[i] = isYellow ? Cell.yellow(playedChar) : Cell.gray(playedChar);
+            if ((greenMask & (1 << i)) == 0) {
+                int letter = WordDictionary.getLetter(packedPlayedWord, i);
+                for (int remaining = unmatchedMask; remaining != 0; remaining &= remaining - 1) {
+                    int resultIndex = Integer.numberOfTrailingZeros(remaining);
+                    if (WordDictionary.getLetter(packedResult, resultIndex) == letter) {
+                        unmatchedMask &= ~(1 << resultIndex);
+                        pattern += DIGIT_YELLOW * POWERS_OF_THREE[i];
+                        break;
+                    }
+                }
             }
         }
-        return Arrays.asList(cells);
+        return pattern;
+    }
+
+    /**
+     * Returns the color of the cell at the given index of the pattern.
+     *
+     * @param pattern the pattern code
+     * @param index the cell index
+     * @return the color of the cell
+     */
+    public static Color getColor(int pattern, int index) {
+        return switch ((pattern / POWERS_OF_THREE[index]) % 3) {
+            case DIGIT_GREEN -> Color.GREEN;
+            case DIGIT_YELLOW -> Color.YELLOW;
+            default -> Color.GRAY;
+        };
+    }
+
+    public static int encodePattern(List<Cell> cells) {
+        int pattern = 0;
+        for (int i = 0; i < WORD_LENGTH; ++i) {
+            pattern += toDigit(cells.get(i).color()) * POWERS_OF_THREE[i];
+        }
+        return pattern;
     }
 
-    private static int[] evaluate0(String playedWord, String correctWord) {
-        int greens = 0;
-        List<Character> wrongPlayedChars = new ArrayList<>(WORD_LENGTH);
-        List<Character> notFoundActualChars = new ArrayList<>(WORD_LENGTH);
+    public static int encodePattern(Turn turn) {
+        return encodePattern(turn.getCells());
+    }
+
+    public static List<Cell> decodeCells(String playedWord, int pattern) {
+        Cell[] cells = new Cell[WORD_LENGTH];
         for (int i = 0; i < WORD_LENGTH; ++i) {
-            if (playedWord.charAt(i) == correctWord.charAt(i)) {
-                ++greens;
-            } else {
-                wrongPlayedChars.add(playedWord.charAt(i));
-                notFoundActualChars.add(correctWord.charAt(i));
+            cells[i] = new Cell(playedWord.charAt(i), getColor(pattern, i));
+        }
+        return List.of(cells);
+    }
+
+    public static Turn decodeTurn(String playedWord, int pattern) {
+        return new Turn(decodeCells(playedWord, pattern));
+    }
+
+    private static int countUnmatched(String result, char chr, int greenMask) {
+        int count = 0;
+        for (int i = 0; i < WORD_LENGTH; ++i) {
+            if ((greenMask & (1 << i)) == 0 && result.charAt(i) == chr) {
+                ++count;
             }
         }
+        return count;
+    }
 
-        int yellows = 0;
-        for (Character wrongPlayedChar : wrongPlayedChars) {
-            if (notFoundActualChars.remove(wrongPlayedChar)) {
-                ++yellows;
+    private static int countYellow(String playedWord, char chr, int endIndex, int yellowMask) {
+        int count = 0;
+        for (int i = 0; i < endIndex; ++i) {
+            if ((yellowMask & (1 << i)) != 0 && playedWord.charAt(i) == chr) {
+                ++count;
             }
         }
+        return count;
+    }
 
-        int grays = WORD_LENGTH - greens - yellows;
-        return new int[] {
-            greens,
-            yellows,
-            grays
+    private static int toDigit(Color color) {
+        return switch (color) {
+            case GREEN -> DIGIT_GREEN;
+            case YELLOW -> DIGIT_YELLOW;
+            case GRAY -> DIGIT_GRAY;
         };
     }
+
+    private long[] createScoreByPattern() {
+        long[] scores = new long[PATTERN_COUNT];
+        for (int pattern = 0; pattern < PATTERN_COUNT; ++pattern) {
+            int greens = 0;
+            int yellows = 0;
+            for (int i = 0; i < WORD_LENGTH; ++i) {
+                Color color = getColor(pattern, i);
+                if (color == Color.GREEN) {
+                    ++greens;
+                } else if (color == Color.YELLOW) {
+                    ++yellows;
+                }
+            }
+            int grays = WORD_LENGTH - greens - yellows;
+            scores[pattern] = greens * scoreGreen + yellows * scoreYellow + grays * scoreGray;
+        }
+        return scores;
+    }
 }
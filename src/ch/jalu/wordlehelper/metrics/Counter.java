@@ -0,0 +1,23 @@
+package ch.jalu.wordlehelper.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counter that can be incremented by multiple threads.
+ */
+public class Counter {
+
+    private final LongAdder count = new LongAdder();
+
+    public void increment() {
+        count.increment();
+    }
+
+    public void add(long amount) {
+        count.add(amount);
+    }
+
+    public long get() {
+        return count.sum();
+    }
+}
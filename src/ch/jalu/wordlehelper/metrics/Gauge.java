@@ -0,0 +1,19 @@
+package ch.jalu.wordlehelper.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Holds the last value that was set, e.g. the number of candidates after the last command.
+ */
+public class Gauge {
+
+    private final AtomicLong value = new AtomicLong();
+
+    public void set(long value) {
+        this.value.set(value);
+    }
+
+    public long get() {
+        return value.get();
+    }
+}
@@ -0,0 +1,106 @@
+package ch.jalu.wordlehelper.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histogram of durations in nanoseconds. Values are counted in log-linear buckets: every power of two is split into
+ * {@link #SUB_BUCKETS} buckets of equal width, so percentiles are accurate to 12.5% and the histogram has a fixed
+ * size regardless of the number of recorded values. Recording is lock-free and only updates a few atomic counters,
+ * so it is cheap enough to be always on and can be done by multiple threads.
+ */
+public class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+    private final AtomicLongArray countByBucket = new AtomicLongArray(64 * SUB_BUCKETS);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+
+    /**
+     * Records the given duration.
+     *
+     * @param nanos the duration in nanoseconds (negative values are recorded as 0)
+     */
+    public void record(long nanos) {
+        long value = Math.max(0, nanos);
+        countByBucket.incrementAndGet(getBucket(value));
+        count.increment();
+        totalNanos.add(value);
+        maxNanos.accumulate(value);
+    }
+
+    /**
+     * Records the time that has passed since the given start.
+     *
+     * @param startNanos the start as returned by {@link System#nanoTime()}
+     */
+    public void recordSince(long startNanos) {
+        record(System.nanoTime() - startNanos);
+    }
+
+    /**
+     * Returns the current values of the histogram. Values that are recorded while the snapshot is taken may be
+     * partially included.
+     *
+     * @return snapshot of the histogram
+     */
+    public Snapshot getSnapshot() {
+        long[] counts = new long[countByBucket.length()];
+        long total = 0;
+        for (int bucket = 0; bucket < counts.length; ++bucket) {
+            counts[bucket] = countByBucket.get(bucket);
+            total += counts[bucket];
+        }
+        long max = maxNanos.get();
+        return new Snapshot(total, total == 0 ? 0 : totalNanos.sum() / total,
+            getPercentile(counts, total, 0.5, max), getPercentile(counts, total, 0.9, max),
+            getPercentile(counts, total, 0.99, max), max);
+    }
+
+    private static long getPercentile(long[] counts, long total, double percentile, long max) {
+        long rank = (long) Math.ceil(percentile * total);
+        long seen = 0;
+        for (int bucket = 0; bucket < counts.length; ++bucket) {
+            seen += counts[bucket];
+            if (seen >= rank && counts[bucket] > 0) {
+                return Math.min(getUpperBound(bucket), max);
+            }
+        }
+        return max;
+    }
+
+    static int getBucket(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+    }
+
+    static long getUpperBound(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int shift = bucket / SUB_BUCKETS - 1;
+        long lowerBound = (long) (SUB_BUCKETS + bucket % SUB_BUCKETS) << shift;
+        return lowerBound + (1L << shift) - 1;
+    }
+
+    /**
+     * Values of a histogram, in nanoseconds.
+     *
+     * @param count number of recorded values
+     * @param mean the average value
+     * @param p50 the median
+     * @param p90 the 90th percentile
+     * @param p99 the 99th percentile
+     * @param max the largest value
+     */
+    public record Snapshot(long count, long mean, long p50, long p90, long p99, long max) {
+    }
+}
@@ -0,0 +1,118 @@
+package ch.jalu.wordlehelper.metrics;
+
+import ch.jalu.wordlehelper.util.JsonUtil;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Named latency histograms, counters and gauges. Metrics are created on first use and kept for the lifetime of the
+ * registry; callers on hot paths should look up their metric once and keep it. The registry can be printed for the
+ * console or written as JSON (durations in nanoseconds).
+ */
+public class MetricsRegistry {
+
+    private final Map<String, LatencyHistogram> histograms = new ConcurrentSkipListMap<>();
+    private final Map<String, Counter> counters = new ConcurrentSkipListMap<>();
+    private final Map<String, Gauge> gauges = new ConcurrentSkipListMap<>();
+
+    public LatencyHistogram histogram(String name) {
+        return histograms.computeIfAbsent(name, n -> new LatencyHistogram());
+    }
+
+    public Counter counter(String name) {
+        return counters.computeIfAbsent(name, n -> new Counter());
+    }
+
+    public Gauge gauge(String name) {
+        return gauges.computeIfAbsent(name, n -> new Gauge());
+    }
+
+    /**
+     * Returns the number of bytes the current thread has allocated so far, or -1 if the JVM does not support it.
+     * Allocations of other threads (e.g. of a parallel scoring executor) are not included.
+     *
+     * @return allocated bytes of the current thread
+     */
+    public static long getAllocatedBytesOfCurrentThread() {
+        ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+        if (threadBean instanceof com.sun.management.ThreadMXBean sunThreadBean
+            && sunThreadBean.isThreadAllocatedMemoryEnabled()) {
+            return sunThreadBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        return -1;
+    }
+
+    /**
+     * Returns all metrics as nested maps, as written by {@link #toJson}.
+     *
+     * @return the metrics by type and name
+     */
+    public Map<String, Object> toMap() {
+        Map<String, Object> histogramValues = new LinkedHashMap<>();
+        histograms.forEach((name, histogram) -> {
+            LatencyHistogram.Snapshot snapshot = histogram.getSnapshot();
+            Map<String, Object> values = new LinkedHashMap<>();
+            values.put("count", snapshot.count());
+            values.put("meanNanos", snapshot.mean());
+            values.put("p50Nanos", snapshot.p50());
+            values.put("p90Nanos", snapshot.p90());
+            values.put("p99Nanos", snapshot.p99());
+            values.put("maxNanos", snapshot.max());
+            histogramValues.put(name, values);
+        });
+        Map<String, Object> counterValues = new LinkedHashMap<>();
+        counters.forEach((name, counter) -> counterValues.put(name, counter.get()));
+        Map<String, Object> gaugeValues = new LinkedHashMap<>();
+        gauges.forEach((name, gauge) -> gaugeValues.put(name, gauge.get()));
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("histograms", histogramValues);
+        result.put("counters", counterValues);
+        result.put("gauges", gaugeValues);
+        return result;
+    }
+
+    public String toJson() {
+        return JsonUtil.toJson(toMap());
+    }
+
+    /**
+     * Writes the metrics as JSON to the given file.
+     *
+     * @param file the file to write to
+     */
+    public void writeJson(Path file) {
+        try {
+            Files.writeString(file, toJson(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Prints the metrics in a table, with durations in microseconds.
+     *
+     * @param out the stream to print to
+     */
+    public void print(PrintStream out) {
+        out.printf("%-28s %8s %10s %10s %10s %10s %10s%n", "Latency (us)", "count", "mean", "p50", "p90", "p99", "max");
+        histograms.forEach((name, histogram) -> {
+            LatencyHistogram.Snapshot snapshot = histogram.getSnapshot();
+            out.printf("%-28s %8d %10.1f %10.1f %10.1f %10.1f %10.1f%n", name, snapshot.count(),
+                snapshot.mean() / 1000.0, snapshot.p50() / 1000.0, snapshot.p90() / 1000.0, snapshot.p99() / 1000.0,
+                snapshot.max() / 1000.0);
+        });
+        counters.forEach((name, counter) -> out.printf("%-28s %8d%n", name, counter.get()));
+        gauges.forEach((name, gauge) -> out.printf("%-28s %8d%n", name, gauge.get()));
+    }
+}
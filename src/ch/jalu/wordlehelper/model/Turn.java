@@ -68,6 +68,10 @@ public class Turn {
             if (cell.character() == null) {
                 throw new IllegalArgumentException("Error in letter representation. Please try again.");
             }
+            // Words only consist of the letters A-Z, which are also used as array indices by the evaluation
+            if (cell.character() < 'A' || cell.character() > 'Z') {
+                throw new IllegalArgumentException("Unsupported letter: " + cell.character() + " (only A-Z)");
+            }
         });
     }
 }
@@ -0,0 +1,225 @@
+package ch.jalu.wordlehelper.model;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static ch.jalu.wordlehelper.Constants.WORD_LENGTH;
+
+/**
+ * The words of a game, each with a dense id (its index in the dictionary), so that scorers can keep their data in
+ * arrays indexed by word id instead of maps keyed by word.
+ * <p>
+ * Every word is also kept as <i>packed word</i>: an int in which bits {@code 5*i} to {@code 5*i+4} hold the letter
+ * at index {@code i} (0 = A, 25 = Z). Together with the letter mask (bit 0 = A) and the duplicate letter flag of each
+ * word, the letters can be checked without going through the strings.
+ */
+public final class WordDictionary {
+
+    /** Number of bits per letter in a packed word. */
+    public static final int LETTER_BITS = 5;
+
+    private static final int LETTER_MASK = (1 << LETTER_BITS) - 1;
+
+    private final List<String> words;
+    private final Map<String, Integer> idByWord;
+    private final int[] packedWords;
+    private final int[] letterMasks;
+    private final boolean[] duplicateLetters;
+
+    private WordDictionary(List<String> words, Map<String, Integer> idByWord, int[] packedWords, int[] letterMasks,
+                           boolean[] duplicateLetters) {
+        this.words = words;
+        this.idByWord = idByWord;
+        this.packedWords = packedWords;
+        this.letterMasks = letterMasks;
+        this.duplicateLetters = duplicateLetters;
+    }
+
+    /**
+     * Creates a dictionary with the given words; the id of each word is its index in the list.
+     *
+     * @param words the words (distinct, upper case letters A-Z only)
+     * @return the dictionary
+     */
+    public static WordDictionary of(List<String> words) {
+        List<String> wordList = List.copyOf(words);
+        Map<String, Integer> idByWord = new HashMap<>(wordList.size() * 2);
+        for (int id = 0; id < wordList.size(); ++id) {
+            String word = wordList.get(id);
+            if (word.length() != WORD_LENGTH || !word.chars().allMatch(chr -> chr >= 'A' && chr <= 'Z')) {
+                throw new IllegalArgumentException("Expected " + WORD_LENGTH + " letters A-Z but got '" + word + "'");
+            } else if (idByWord.put(word, id) != null) {
+                throw new IllegalArgumentException("Word '" + word + "' is in the dictionary multiple times");
+            }
+        }
+
+        int[] packedWords = new int[wordList.size()];
+        int[] letterMasks = new int[wordList.size()];
+        boolean[] duplicateLetters = new boolean[wordList.size()];
+        for (int id = 0; id < wordList.size(); ++id) {
+            packedWords[id] = pack(wordList.get(id));
+            letterMasks[id] = toLetterMask(packedWords[id]);
+            duplicateLetters[id] = Integer.bitCount(letterMasks[id]) < WORD_LENGTH;
+        }
+        return new WordDictionary(wordList, idByWord, packedWords, letterMasks, duplicateLetters);
+    }
+
+    /**
+     * Creates a dictionary with the given packed words; the id of each word is its index in the array.
+     *
+     * @param packedWords the packed words (distinct), by id
+     * @return the dictionary
+     */
+    public static WordDictionary ofPackedWords(int[] packedWords) {
+        int[] letterMasks = new int[packedWords.length];
+        boolean[] duplicateLetters = new boolean[packedWords.length];
+        for (int id = 0; id < packedWords.length; ++id) {
+            letterMasks[id] = toLetterMask(packedWords[id]);
+            duplicateLetters[id] = Integer.bitCount(letterMasks[id]) < WORD_LENGTH;
+        }
+        return ofPackedWords(packedWords, letterMasks, duplicateLetters);
+    }
+
+    /**
+     * Creates a dictionary from packed words whose metadata has already been computed, e.g. when reading a
+     * compiled word file. The arrays are used as is and must not be modified afterwards.
+     *
+     * @param packedWords the packed words, by id
+     * @param letterMasks the letter mask of each word, by id
+     * @param duplicateLetters whether the word has a letter multiple times, by id
+     * @return the dictionary
+     */
+    public static WordDictionary ofPackedWords(int[] packedWords, int[] letterMasks, boolean[] duplicateLetters) {
+        if (packedWords.length != letterMasks.length || packedWords.length != duplicateLetters.length) {
+            throw new IllegalArgumentException("Expected the same number of packed words (" + packedWords.length
+                + "), letter masks (" + letterMasks.length + ") and flags (" + duplicateLetters.length + ")");
+        }
+        String[] words = new String[packedWords.length];
+        Map<String, Integer> idByWord = new HashMap<>(packedWords.length * 2);
+        for (int id = 0; id < packedWords.length; ++id) {
+            words[id] = unpack(packedWords[id]);
+            if (idByWord.put(words[id], id) != null) {
+                throw new IllegalArgumentException("Word '" + words[id] + "' is in the dictionary multiple times");
+            }
+        }
+        return new WordDictionary(List.of(words), idByWord, packedWords, letterMasks, duplicateLetters);
+    }
+
+    public List<String> getWords() {
+        return words;
+    }
+
+    public int size() {
+        return words.size();
+    }
+
+    public String getWord(int id) {
+        return words.get(id);
+    }
+
+    /**
+     * Returns the id of the given word, or -1 if the word is not part of this dictionary.
+     *
+     * @param word the word to look up
+     * @return the word's id, or -1
+     */
+    public int getId(String word) {
+        Integer id = idByWord.get(word);
+        return id == null ? -1 : id;
+    }
+
+    public int requireId(String word) {
+        Integer id = idByWord.get(word);
+        if (id == null) {
+            throw new IllegalArgumentException("Word '" + word + "' is not part of the dictionary");
+        }
+        return id;
+    }
+
+    /**
+     * Returns the ids of the given words.
+     *
+     * @param words the words to look up (must all be part of the dictionary)
+     * @return array with the id of each word
+     */
+    public int[] toIds(Collection<String> words) {
+        int[] ids = new int[words.size()];
+        int i = 0;
+        for (String word : words) {
+            ids[i] = requireId(word);
+            ++i;
+        }
+        return ids;
+    }
+
+    public int getPackedWord(int id) {
+        return packedWords[id];
+    }
+
+    /**
+     * Returns a 26-bit mask of the letters the word contains (bit 0 = A).
+     *
+     * @param id the word id
+     * @return the word's letters
+     */
+    public int getLetterMask(int id) {
+        return letterMasks[id];
+    }
+
+    public boolean hasDuplicateLetters(int id) {
+        return duplicateLetters[id];
+    }
+
+    /**
+     * Returns the letter at the given index of a packed word (0 = A, 25 = Z).
+     *
+     * @param packedWord the packed word
+     * @param index the index of the letter in the word
+     * @return the letter
+     */
+    public static int getLetter(int packedWord, int index) {
+        return (packedWord >>> (LETTER_BITS * index)) & LETTER_MASK;
+    }
+
+    /**
+     * Packs the given word into an int (see class Javadoc).
+     *
+     * @param word the word to pack (upper case letters A-Z only)
+     * @return the packed word
+     */
+    public static int pack(String word) {
+        int packedWord = 0;
+        for (int i = 0; i < WORD_LENGTH; ++i) {
+            packedWord |= (word.charAt(i) - 'A') << (LETTER_BITS * i);
+        }
+        return packedWord;
+    }
+
+    /**
+     * Returns the word that was packed with {@link #pack}.
+     *
+     * @param packedWord the packed word
+     * @return the word
+     */
+    public static String unpack(int packedWord) {
+        char[] letters = new char[WORD_LENGTH];
+        for (int i = 0; i < WORD_LENGTH; ++i) {
+            int letter = getLetter(packedWord, i);
+            if (letter >= 26) {
+                throw new IllegalArgumentException("Invalid letter " + letter + " in packed word " + packedWord);
+            }
+            letters[i] = (char) ('A' + letter);
+        }
+        return new String(letters);
+    }
+
+    private static int toLetterMask(int packedWord) {
+        int mask = 0;
+        for (int i = 0; i < WORD_LENGTH; ++i) {
+            mask |= 1 << getLetter(packedWord, i);
+        }
+        return mask;
+    }
+}
@@ -0,0 +1,135 @@
+package ch.jalu.wordlehelper.model;
+
+import ch.jalu.wordlehelper.model.predicate.CharCountPredicate;
+import ch.jalu.wordlehelper.model.predicate.HasExactCountPredicate;
+import ch.jalu.wordlehelper.model.predicate.MinimumCountPredicate;
+
+import java.util.Map;
+import java.util.Set;
+
+import static ch.jalu.wordlehelper.Constants.WORD_LENGTH;
+
+/**
+ * Flat representation of a {@link WordleResultData} that checks words with primitive operations only. Create it
+ * with {@link WordleResultData#compile()} and reuse it for all words that should be filtered.
+ * <p>
+ * For every position, the letters that may appear there are kept as 26-bit mask (bit 0 = A). Letters with a count
+ * predicate have a minimum and maximum count.
+ */
+public final class WordMatcher {
+
+    /** Mask with a bit set for every letter from A to Z. */
+    public static final int ALL_LETTERS = (1 << 26) - 1;
+
+    private final int[] allowedLettersByIndex;
+    private final int[] constrainedLetters;
+    private final int[] minCounts;
+    private final int[] maxCounts;
+
+    private WordMatcher(int[] allowedLettersByIndex, int[] constrainedLetters, int[] minCounts, int[] maxCounts) {
+        this.allowedLettersByIndex = allowedLettersByIndex;
+        this.constrainedLetters = constrainedLetters;
+        this.minCounts = minCounts;
+        this.maxCounts = maxCounts;
+    }
+
+    static WordMatcher of(WordleResultData resultData) {
+        int[] allowedLettersByIndex = new int[WORD_LENGTH];
+        for (int i = 0; i < WORD_LENGTH; ++i) {
+            Character knownChar = resultData.knownCharactersByIndex()[i];
+            int allowed = knownChar == null ? ALL_LETTERS : toBit(knownChar);
+            Set<Character> wrongChars = resultData.wrongCharsByIndex().getBackingMap().get(i);
+            if (wrongChars != null) {
+                for (Character wrongChar : wrongChars) {
+                    allowed &= ~toBit(wrongChar);
+                }
+            }
+            allowedLettersByIndex[i] = allowed;
+        }
+
+        Map<Character, CharCountPredicate> predicatesByChar = resultData.predicatesByChar();
+        int[] constrainedLetters = new int[predicatesByChar.size()];
+        int[] minCounts = new int[predicatesByChar.size()];
+        int[] maxCounts = new int[predicatesByChar.size()];
+        int index = 0;
+        for (Map.Entry<Character, CharCountPredicate> entry : predicatesByChar.entrySet()) {
+            constrainedLetters[index] = entry.getKey();
+            if (entry.getValue() instanceof HasExactCountPredicate exact) {
+                minCounts[index] = exact.getRequiredCount();
+                maxCounts[index] = exact.getRequiredCount();
+            } else if (entry.getValue() instanceof MinimumCountPredicate min) {
+                minCounts[index] = min.getMinimumCount();
+                maxCounts[index] = WORD_LENGTH;
+            } else {
+                throw new IllegalStateException("Unhandled predicate: " + entry.getValue().getClass());
+            }
+            ++index;
+        }
+        return new WordMatcher(allowedLettersByIndex, constrainedLetters, minCounts, maxCounts);
+    }
+
+    public boolean matches(String word) {
+        for (int i = 0; i < WORD_LENGTH; ++i) {
+            int letter = word.charAt(i) - 'A';
+            if (letter < 0 || letter >= 26 || (allowedLettersByIndex[i] & (1 << letter)) == 0) {
+                return false;
+            }
+        }
+
+        for (int c = 0; c < constrainedLetters.length; ++c) {
+            int letter = constrainedLetters[c];
+            int count = 0;
+            for (int i = 0; i < WORD_LENGTH; ++i) {
+                if (word.charAt(i) == letter) {
+                    ++count;
+                }
+            }
+            if (count < minCounts[c] || count > maxCounts[c]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the mask of letters that are allowed at the given position.
+     *
+     * @param index the position in the word
+     * @return mask of allowed letters (bit 0 = A)
+     */
+    public int getAllowedLetters(int index) {
+        return allowedLettersByIndex[index];
+    }
+
+    /**
+     * Returns the number of letters that have a count predicate.
+     *
+     * @return number of constrained letters
+     */
+    public int getConstrainedLetterCount() {
+        return constrainedLetters.length;
+    }
+
+    /**
+     * Returns the constrained letter with the given index (0 = A, 25 = Z).
+     *
+     * @param index the index of the constrained letter (see {@link #getConstrainedLetterCount})
+     * @return the letter
+     */
+    public int getConstrainedLetter(int index) {
+        return constrainedLetters[index] - 'A';
+    }
+
+    public int getMinCount(int index) {
+        return minCounts[index];
+    }
+
+    public int getMaxCount(int index) {
+        return maxCounts[index];
+    }
+
+    private static int toBit(char chr) {
+        int letter = chr - 'A';
+        return letter >= 0 && letter < 26 ? 1 << letter : 0;
+    }
+}
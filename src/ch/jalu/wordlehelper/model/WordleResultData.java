@@ -12,6 +12,16 @@ public record WordleResultData(Character[] knownCharactersByIndex,
                                HashSetMultimap<Integer, Character> wrongCharsByIndex,
                                Map<Character, CharCountPredicate> predicatesByChar) {
 
+    /**
+     * Creates a matcher that checks words like {@link #matches} but without any lookups in maps. Use this when
+     * many words are tested against the same result data.
+     *
+     * @return matcher for this result data
+     */
+    public WordMatcher compile() {
+        return WordMatcher.of(this);
+    }
+
     public boolean matches(String word) {
         CharCountContainer charCount = new CharCountContainer();
         for (int i = 0; i < WORD_LENGTH; ++i) {
@@ -0,0 +1,96 @@
+package ch.jalu.wordlehelper.simulation;
+
+import ch.jalu.wordlehelper.evaluation.CandidateStack;
+import ch.jalu.wordlehelper.evaluation.GameDataCreator;
+import ch.jalu.wordlehelper.evaluation.ScoringExecutor;
+import ch.jalu.wordlehelper.evaluation.WordBitsetIndex;
+import ch.jalu.wordlehelper.evaluation.WordleTurnEvaluator;
+import ch.jalu.wordlehelper.model.Turn;
+import ch.jalu.wordlehelper.model.WordDictionary;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Plays games against a list of answers with a given strategy. Games are independent of each other and are run on
+ * the threads of the scoring executor.
+ */
+public class GameSimulator {
+
+    /** Games that are not solved after this many guesses are aborted (e.g. if a strategy repeats a word). */
+    public static final int MAX_GUESSES_PER_GAME = 20;
+
+    private final GameDataCreator gameDataCreator;
+    private final WordleTurnEvaluator wordleTurnEvaluator;
+    private final List<String> allWords;
+    private final Set<String> allWordsSet;
+    private final WordBitsetIndex wordIndex;
+    private final ScoringExecutor executor;
+
+    /**
+     * Constructor.
+     *
+     * @param gameDataCreator game data creator to build the result data with
+     * @param wordleTurnEvaluator evaluator to generate the feedback of guesses with
+     * @param allWords all words that can be the answer
+     * @param executor executor to run the games on
+     */
+    public GameSimulator(GameDataCreator gameDataCreator, WordleTurnEvaluator wordleTurnEvaluator,
+                         List<String> allWords, ScoringExecutor executor) {
+        this.gameDataCreator = gameDataCreator;
+        this.wordleTurnEvaluator = wordleTurnEvaluator;
+        this.allWords = List.copyOf(allWords);
+        this.allWordsSet = Set.copyOf(allWords);
+        this.wordIndex = WordBitsetIndex.build(WordDictionary.of(this.allWords));
+        this.executor = executor;
+    }
+
+    /**
+     * Plays one game for each of the given answers.
+     *
+     * @param strategy the strategy to choose the guesses with
+     * @param answers the answers to play against (must be part of all words)
+     * @return the result of the simulation
+     */
+    public SimulationResult simulate(Strategy strategy, List<String> answers) {
+        for (String answer : answers) {
+            if (!allWordsSet.contains(answer)) {
+                throw new IllegalArgumentException("Answer '" + answer + "' is not part of all words");
+            }
+        }
+
+        long start = System.nanoTime();
+        // The opening guess does not depend on the answer
+        String openingGuess = strategy.chooseGuess(List.of(), gameDataCreator.constructResultData(List.of()), allWords);
+        long openingNanos = System.nanoTime() - start;
+
+        int[] guessesByGame = new int[answers.size()];
+        long[] nanosByGame = new long[answers.size()];
+        executor.forEachRange(answers.size(), (from, to) -> {
+            for (int i = from; i < to; ++i) {
+                long gameStart = System.nanoTime();
+                guessesByGame[i] = play(strategy, openingGuess, answers.get(i));
+                nanosByGame[i] = System.nanoTime() - gameStart;
+            }
+        });
+        return new SimulationResult(guessesByGame, nanosByGame, openingNanos, System.nanoTime() - start,
+            executor.getParallelism());
+    }
+
+    /**
+     * Plays a game and returns the number of guesses that were needed, or {@link SimulationResult#UNSOLVED} if the
+     * answer was not found within {@link #MAX_GUESSES_PER_GAME} guesses.
+     */
+    private int play(Strategy strategy, String openingGuess, String answer) {
+        CandidateStack game = new CandidateStack(gameDataCreator, wordIndex);
+        String guess = openingGuess;
+        for (int guesses = 1; guesses <= MAX_GUESSES_PER_GAME; ++guesses) {
+            if (guess.equals(answer)) {
+                return guesses;
+            }
+            game.push(new Turn(wordleTurnEvaluator.evaluateCells(guess, answer)));
+            guess = strategy.chooseGuess(game.getTurns(), game.getResultData(), game.getCandidates());
+        }
+        return SimulationResult.UNSOLVED;
+    }
+}
@@ -0,0 +1,127 @@
+package ch.jalu.wordlehelper.simulation;
+
+import java.util.Arrays;
+
+import static ch.jalu.wordlehelper.Constants.MAX_GUESSES;
+
+/**
+ * Result of a simulation: the number of guesses and the time of every game.
+ */
+public class SimulationResult {
+
+    /** Number of guesses of a game that was aborted without finding the answer. */
+    public static final int UNSOLVED = -1;
+
+    private final int[] guessesByGame;
+    private final long[] sortedNanosByGame;
+    private final long openingNanos;
+    private final long totalNanos;
+    private final int threads;
+
+    /**
+     * Constructor.
+     *
+     * @param guessesByGame number of guesses of each game ({@link #UNSOLVED} for aborted games)
+     * @param nanosByGame duration of each game, without the opening guess
+     * @param openingNanos time it took to compute the opening guess
+     * @param totalNanos duration of the entire simulation
+     * @param threads number of threads the games were played on
+     */
+    SimulationResult(int[] guessesByGame, long[] nanosByGame, long openingNanos, long totalNanos, int threads) {
+        this.guessesByGame = guessesByGame;
+        this.sortedNanosByGame = nanosByGame.clone();
+        Arrays.sort(sortedNanosByGame);
+        this.openingNanos = openingNanos;
+        this.totalNanos = totalNanos;
+        this.threads = threads;
+    }
+
+    public int getGames() {
+        return guessesByGame.length;
+    }
+
+    /**
+     * @return average number of guesses of the solved games
+     */
+    public double getAverageGuesses() {
+        return Arrays.stream(guessesByGame).filter(guesses -> guesses != UNSOLVED).average().orElse(0);
+    }
+
+    /**
+     * Returns the number of games by the number of guesses they needed. Index 0 contains the number of games that
+     * were not solved at all.
+     *
+     * @return number of games by guesses
+     */
+    public int[] getGuessDistribution() {
+        int[] gamesByGuesses = new int[GameSimulator.MAX_GUESSES_PER_GAME + 1];
+        for (int guesses : guessesByGame) {
+            ++gamesByGuesses[guesses == UNSOLVED ? 0 : guesses];
+        }
+        return gamesByGuesses;
+    }
+
+    /**
+     * @return number of games that were not solved within {@link ch.jalu.wordlehelper.Constants#MAX_GUESSES}
+     */
+    public int getFailures() {
+        return (int) Arrays.stream(guessesByGame)
+            .filter(guesses -> guesses == UNSOLVED || guesses > MAX_GUESSES)
+            .count();
+    }
+
+    public double getGamesPerSecond() {
+        return guessesByGame.length / (totalNanos / 1e9);
+    }
+
+    /**
+     * Returns the duration of a game at the given percentile (nearest rank).
+     *
+     * @param percentile the percentile (0 - 100)
+     * @return game duration in nanoseconds
+     */
+    public long getLatencyPercentile(double percentile) {
+        if (sortedNanosByGame.length == 0) {
+            return 0;
+        }
+        int rank = (int) Math.ceil(percentile / 100 * sortedNanosByGame.length);
+        return sortedNanosByGame[Math.max(0, Math.min(rank, sortedNanosByGame.length) - 1)];
+    }
+
+    /**
+     * Prints the result to the console.
+     *
+     * @param name name of the strategy
+     */
+    public void print(String name) {
+        System.out.printf("Strategy %s: %d games on %d thread(s)%n", name, getGames(), threads);
+        System.out.printf(" Average guesses: %.4f, failures (more than %d guesses): %d%n",
+            getAverageGuesses(), MAX_GUESSES, getFailures());
+
+        int[] distribution = getGuessDistribution();
+        int maxCount = Arrays.stream(distribution).max().orElse(0);
+        for (int guesses = 1; guesses < distribution.length; ++guesses) {
+            if (distribution[guesses] > 0 || guesses <= MAX_GUESSES) {
+                printDistributionLine(Integer.toString(guesses), distribution[guesses], maxCount);
+            }
+        }
+        if (distribution[0] > 0) {
+            printDistributionLine("-", distribution[0], maxCount);
+        }
+
+        System.out.printf(" Throughput: %.1f games/s (total %d ms, opening guess %d ms)%n",
+            getGamesPerSecond(), totalNanos / 1_000_000, openingNanos / 1_000_000);
+        System.out.printf(" Latency per game (ms): p50 %.3f, p90 %.3f, p99 %.3f, max %.3f%n",
+            toMillis(getLatencyPercentile(50)), toMillis(getLatencyPercentile(90)),
+            toMillis(getLatencyPercentile(99)), toMillis(getLatencyPercentile(100)));
+    }
+
+    private static void printDistributionLine(String label, int count, int maxCount) {
+        int barLength = maxCount == 0 ? 0 : (int) Math.round(40.0 * count / maxCount);
+        System.out.printf(" %2s: %6d %s%n", label, count, "#".repeat(barLength));
+    }
+
+    private static double toMillis(long nanos) {
+        return nanos / 1e6;
+    }
+}
@@ -0,0 +1,27 @@
+package ch.jalu.wordlehelper.simulation;
+
+import ch.jalu.wordlehelper.model.Turn;
+import ch.jalu.wordlehelper.model.WordleResultData;
+
+import java.util.List;
+
+/**
+ * Chooses the word to play next in a simulated game.
+ * <p>
+ * Strategies are called concurrently from multiple games and must therefore be thread-safe. They must also be
+ * deterministic: the opening guess is only computed once per simulation.
+ */
+@FunctionalInterface
+public interface Strategy {
+
+    /**
+     * Returns the word to play next.
+     *
+     * @param turns the turns played so far (empty for the opening guess)
+     * @param resultData the result data of all turns
+     * @param candidates the words that are still possible (never empty)
+     * @return the word to play
+     */
+    String chooseGuess(List<Turn> turns, WordleResultData resultData, List<String> candidates);
+
+}
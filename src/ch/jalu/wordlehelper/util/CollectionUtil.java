@@ -15,32 +15,9 @@ public final class CollectionUtil {
     private CollectionUtil() {
     }
 
-    public static <K extends Comparable<K>, V> TreeMap<K, V> retainTopKeys(TreeMap<K, V> map, int nBestToKeep) {
-        var keyset = map.descendingKeySet().iterator();
-        int i = 0;
-        K value = null;
-        while (keyset.hasNext() && i < nBestToKeep) {
-            value = keyset.next();
-            ++i;
-        }
-        final K threshold = value;
-
-        map.entrySet().removeIf(entry -> entry.getKey().compareTo(threshold) < 0);
-        return map;
-    }
-
-    public static <K, V extends Comparable<V>> TreeMap<V, List<K>> invertMap(Map<K, V> map) {
-        ListSortedMultimap<V, K> result = new ListSortedMultimap<>();
-        map.forEach((key, value) -> result.put(value, key));
-        return result.getBackingMap();
-    }
-
     public static <V> TreeMap<BigDecimal, List<V>> groupByNormalizedValueDescending(BigDecimal maxValue,
                                                                                     Map<V, BigDecimal> map) {
-        MathContext mathContext = new MathContext(2);
-        Function<BigDecimal, BigDecimal> normalizer = (maxValue == null || maxValue.compareTo(BigDecimal.ZERO) == 0)
-            ? Function.identity()
-            : (score -> score.divide(maxValue, mathContext).setScale(2, RoundingMode.HALF_UP));
+        Function<BigDecimal, BigDecimal> normalizer = createNormalizer(maxValue);
 
         ListSortedMultimap<BigDecimal, V> normalizedMap = ListSortedMultimap.withReverseOrder();
         map.forEach((value, score) -> {
@@ -49,6 +26,77 @@ public final class CollectionUtil {
         return normalizedMap.getBackingMap();
     }
 
+    /**
+     * Groups the values by their normalized score like {@link #groupByNormalizedValueDescending(BigDecimal, Map)}
+     * for scores that are given as scaled long values (e.g. 15 with scale 1 is 1.5). The score at index {@code i}
+     * belongs to the i-th value. The normalization is based on the highest score.
+     *
+     * @param values the values that were scored
+     * @param scaledScores the score of each value
+     * @param scale the number of decimal places of the scores
+     * @param <V> the value type
+     * @return values grouped by normalized score, highest first
+     */
+    public static <V> TreeMap<BigDecimal, List<V>> groupByNormalizedValueDescending(List<V> values,
+                                                                                    long[] scaledScores, int scale) {
+        long maxScore = 0;
+        for (long score : scaledScores) {
+            maxScore = Math.max(maxScore, score);
+        }
+        Function<BigDecimal, BigDecimal> normalizer = createNormalizer(BigDecimal.valueOf(maxScore, scale));
+
+        ListSortedMultimap<BigDecimal, V> normalizedMap = ListSortedMultimap.withReverseOrder();
+        for (int i = 0; i < scaledScores.length; ++i) {
+            normalizedMap.put(normalizer.apply(BigDecimal.valueOf(scaledScores[i], scale)), values.get(i));
+        }
+        return normalizedMap.getBackingMap();
+    }
+
+    /**
+     * Groups the values by their normalized score like {@link #groupByNormalizedValueDescending(BigDecimal, Map)}.
+     * The score at index {@code i} belongs to the i-th value.
+     *
+     * @param maxValue the value to normalize with
+     * @param values the values that were scored
+     * @param scores the score of each value
+     * @param <V> the value type
+     * @return values grouped by normalized score, highest first
+     */
+    public static <V> TreeMap<BigDecimal, List<V>> groupByNormalizedValueDescending(double maxValue, List<V> values,
+                                                                                    double[] scores) {
+        Function<BigDecimal, BigDecimal> normalizer = createNormalizer(BigDecimal.valueOf(maxValue));
+
+        ListSortedMultimap<BigDecimal, V> normalizedMap = ListSortedMultimap.withReverseOrder();
+        for (int i = 0; i < scores.length; ++i) {
+            normalizedMap.put(normalizer.apply(BigDecimal.valueOf(scores[i])), values.get(i));
+        }
+        return normalizedMap.getBackingMap();
+    }
+
+    public static double max(double[] values) {
+        double max = Double.NEGATIVE_INFINITY;
+        for (double value : values) {
+            max = Math.max(max, value);
+        }
+        return max;
+    }
+
+    /**
+     * Returns a function that divides scores by the given max value and rounds them to two decimal places, as done
+     * by {@link #groupByNormalizedValueDescending(BigDecimal, Map)}. Scores are not changed if the max value is null
+     * or zero.
+     *
+     * @param maxValue the value to normalize with
+     * @return the normalizing function
+     */
+    public static Function<BigDecimal, BigDecimal> createNormalizer(BigDecimal maxValue) {
+        if (maxValue == null || maxValue.compareTo(BigDecimal.ZERO) == 0) {
+            return Function.identity();
+        }
+        MathContext mathContext = new MathContext(2);
+        return score -> score.divide(maxValue, mathContext).setScale(2, RoundingMode.HALF_UP);
+    }
+
     @SafeVarargs
     public static <V> TreeMap<BigDecimal, List<V>> combineMaps(Map<BigDecimal, List<V>>... scoreMaps) {
         if (scoreMaps.length < 2) {
@@ -0,0 +1,147 @@
+package ch.jalu.wordlehelper.util;
+
+import ch.jalu.wordlehelper.model.WordDictionary;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.zip.CRC32C;
+
+/**
+ * Binary version of a word file, so that a dictionary can be loaded without reading and parsing the text file.
+ * The compiled file is saved next to the text file with the extension {@code .bin} (see {@link #getCompiledPath}).
+ * <p>
+ * Layout: a header (magic number, format version, size and modification time of the text file, word count and a
+ * CRC32C checksum of the data), followed by the packed words, the letter masks and the duplicate letter flags of the
+ * {@link WordDictionary}, each as one block. The file is read through a memory-mapped buffer; it is only used if the
+ * text file has not changed since it was compiled and the checksum matches.
+ */
+public final class CompiledWordFile {
+
+    private static final int MAGIC = 0x57444331; // "WDC1"
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 4 + 4 + 8 + 8 + 4 + 4;
+    private static final int BYTES_PER_WORD = 4 + 4 + 1;
+
+    private CompiledWordFile() {
+    }
+
+    /**
+     * Returns the path of the compiled file for the given word file, e.g. {@code all_words.bin} for
+     * {@code all_words.txt}.
+     *
+     * @param wordFile the text file
+     * @return path of the compiled file
+     */
+    public static Path getCompiledPath(Path wordFile) {
+        String fileName = wordFile.getFileName().toString();
+        int extensionStart = fileName.lastIndexOf('.');
+        String baseName = extensionStart > 0 ? fileName.substring(0, extensionStart) : fileName;
+        return wordFile.resolveSibling(baseName + ".bin");
+    }
+
+    /**
+     * Writes the dictionary as compiled version of the given word file.
+     *
+     * @param wordFile the text file the dictionary was read from
+     * @param dictionary the dictionary to save
+     * @return path of the compiled file
+     */
+    public static Path compile(Path wordFile, WordDictionary dictionary) {
+        int size = dictionary.size();
+        ByteBuffer data = ByteBuffer.allocate(size * BYTES_PER_WORD).order(ByteOrder.LITTLE_ENDIAN);
+        for (int id = 0; id < size; ++id) {
+            data.putInt(dictionary.getPackedWord(id));
+        }
+        for (int id = 0; id < size; ++id) {
+            data.putInt(dictionary.getLetterMask(id));
+        }
+        for (int id = 0; id < size; ++id) {
+            data.put((byte) (dictionary.hasDuplicateLetters(id) ? 1 : 0));
+        }
+        data.flip();
+
+        Path compiledFile = getCompiledPath(wordFile);
+        try (FileChannel channel = FileChannel.open(compiledFile, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            BasicFileAttributes attributes = Files.readAttributes(wordFile, BasicFileAttributes.class);
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            header.putInt(MAGIC)
+                .putInt(VERSION)
+                .putLong(attributes.size())
+                .putLong(attributes.lastModifiedTime().toMillis())
+                .putInt(size)
+                .putInt(calculateChecksum(data.duplicate()));
+            header.flip();
+            while (header.hasRemaining()) {
+                channel.write(header);
+            }
+            while (data.hasRemaining()) {
+                channel.write(data);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return compiledFile;
+    }
+
+    /**
+     * Loads the compiled version of the given word file if it exists and is up to date.
+     *
+     * @param wordFile the text file
+     * @return the dictionary, or null if there is no valid compiled file
+     */
+    public static WordDictionary loadIfValid(Path wordFile) {
+        Path compiledFile = getCompiledPath(wordFile);
+        if (!Files.isRegularFile(compiledFile) || !Files.isRegularFile(wordFile)) {
+            return null;
+        }
+
+        try (FileChannel channel = FileChannel.open(compiledFile, StandardOpenOption.READ)) {
+            if (channel.size() < HEADER_SIZE) {
+                return null;
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            BasicFileAttributes attributes = Files.readAttributes(wordFile, BasicFileAttributes.class);
+            if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION
+                || buffer.getLong() != attributes.size()
+                || buffer.getLong() != attributes.lastModifiedTime().toMillis()) {
+                return null;
+            }
+            int size = buffer.getInt();
+            int checksum = buffer.getInt();
+            if (size < 0 || buffer.remaining() != (long) size * BYTES_PER_WORD
+                || calculateChecksum(buffer.duplicate()) != checksum) {
+                return null;
+            }
+
+            int[] packedWords = new int[size];
+            int[] letterMasks = new int[size];
+            boolean[] duplicateLetters = new boolean[size];
+            buffer.asIntBuffer().get(packedWords);
+            buffer.position(buffer.position() + size * 4);
+            buffer.asIntBuffer().get(letterMasks);
+            buffer.position(buffer.position() + size * 4);
+            for (int id = 0; id < size; ++id) {
+                duplicateLetters[id] = buffer.get() != 0;
+            }
+            return WordDictionary.ofPackedWords(packedWords, letterMasks, duplicateLetters);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static int calculateChecksum(ByteBuffer data) {
+        CRC32C crc = new CRC32C();
+        crc.update(data);
+        return (int) crc.getValue();
+    }
+}
@@ -1,5 +1,7 @@
 package ch.jalu.wordlehelper.util;
 
+import ch.jalu.wordlehelper.model.WordDictionary;
+
 import java.io.IOException;
 import java.io.UncheckedIOException;
 import java.nio.file.Files;
@@ -27,6 +29,37 @@ public final class FileUtil {
         return readWordFile(path, HashSet::new);
     }
 
+    /**
+     * Reads the words of the given file into a dictionary. Words that appear multiple times are only added once,
+     * so the word ids follow the order of the first occurrences.
+     * <p>
+     * If the file has been compiled with {@link CompiledWordFile} and has not changed since, the compiled file is
+     * loaded instead.
+     *
+     * @param path the file to read
+     * @return dictionary with the file's words
+     */
+    public static WordDictionary readWordFileAsDictionary(Path path) {
+        WordDictionary compiledDictionary = CompiledWordFile.loadIfValid(path);
+        return compiledDictionary == null ? readTextWordFileAsDictionary(path) : compiledDictionary;
+    }
+
+    /**
+     * Reads the words of the given text file into a dictionary, ignoring any compiled version of the file. Lines
+     * that are not a valid word are skipped with a warning (see {@link StreamingWordLoader}).
+     *
+     * @param path the file to read
+     * @return dictionary with the file's words
+     */
+    public static WordDictionary readTextWordFileAsDictionary(Path path) {
+        StreamingWordLoader.Result result = StreamingWordLoader.load(path);
+        if (result.report().rejected() > 0) {
+            System.err.println("Skipped invalid lines in " + path + " (" + result.report() + "), e.g. "
+                + result.report().rejectedSamples().get(0));
+        }
+        return result.dictionary();
+    }
+
     public static List<String> readWordFileAndSort(Path path) {
         List<String> words = readWordFileAsList(path);
         Collections.sort(words);
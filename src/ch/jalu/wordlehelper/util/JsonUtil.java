@@ -0,0 +1,85 @@
+package ch.jalu.wordlehelper.util;
+
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Writes simple values as JSON. Supported are maps with string keys (written as objects), collections (written as
+ * arrays), strings, numbers, booleans and null. Use a {@link java.util.LinkedHashMap} to keep the order of the
+ * object entries.
+ */
+public final class JsonUtil {
+
+    private JsonUtil() {
+    }
+
+    /**
+     * Returns the JSON representation of the given value.
+     *
+     * @param value the value to write
+     * @return the value as JSON
+     */
+    public static String toJson(Object value) {
+        StringBuilder sb = new StringBuilder();
+        append(sb, value);
+        return sb.toString();
+    }
+
+    private static void append(StringBuilder sb, Object value) {
+        if (value == null) {
+            sb.append("null");
+        } else if (value instanceof String str) {
+            appendString(sb, str);
+        } else if (value instanceof Number || value instanceof Boolean) {
+            sb.append(value);
+        } else if (value instanceof Map<?, ?> map) {
+            sb.append('{');
+            Iterator<? extends Map.Entry<?, ?>> it = map.entrySet().iterator();
+            while (it.hasNext()) {
+                Map.Entry<?, ?> entry = it.next();
+                appendString(sb, String.valueOf(entry.getKey()));
+                sb.append(':');
+                append(sb, entry.getValue());
+                if (it.hasNext()) {
+                    sb.append(',');
+                }
+            }
+            sb.append('}');
+        } else if (value instanceof Collection<?> collection) {
+            sb.append('[');
+            Iterator<?> it = collection.iterator();
+            while (it.hasNext()) {
+                append(sb, it.next());
+                if (it.hasNext()) {
+                    sb.append(',');
+                }
+            }
+            sb.append(']');
+        } else {
+            throw new IllegalArgumentException("Unsupported JSON value: " + value.getClass());
+        }
+    }
+
+    private static void appendString(StringBuilder sb, String str) {
+        sb.append('"');
+        for (int i = 0; i < str.length(); ++i) {
+            char chr = str.charAt(i);
+            switch (chr) {
+                case '"' -> sb.append("\\\"");
+                case '\\' -> sb.append("\\\\");
+                case '\n' -> sb.append("\\n");
+                case '\r' -> sb.append("\\r");
+                case '\t' -> sb.append("\\t");
+                default -> {
+                    if (chr < 0x20) {
+                        sb.append(String.format("\\u%04x", (int) chr));
+                    } else {
+                        sb.append(chr);
+                    }
+                }
+            }
+        }
+        sb.append('"');
+    }
+}
@@ -0,0 +1,102 @@
+package ch.jalu.wordlehelper.util;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Map that keeps the most recently used entries within a limit on the number of entries and on their total weight.
+ * The weight of an entry is given by a {@link Weigher}, e.g. an estimate of its memory footprint; when an entry is
+ * added, the least recently used entries are evicted until both limits are respected again. An entry that is heavier
+ * than the weight limit on its own is not stored.
+ * <p>
+ * All methods are synchronized, so the cache can be shared by multiple threads.
+ *
+ * @param <K> the key type
+ * @param <V> the value type
+ */
+public class LruCache<K, V> {
+
+    private final int maxEntries;
+    private final long maxWeight;
+    private final Weigher<? super K, ? super V> weigher;
+    private final LinkedHashMap<K, V> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long weight;
+
+    /**
+     * Constructor.
+     *
+     * @param maxEntries maximum number of entries to keep
+     * @param maxWeight maximum total weight of the entries
+     * @param weigher function returning the weight of an entry
+     */
+    public LruCache(int maxEntries, long maxWeight, Weigher<? super K, ? super V> weigher) {
+        if (maxEntries < 1 || maxWeight < 1) {
+            throw new IllegalArgumentException("Limits must be positive, got " + maxEntries + " entries and weight "
+                + maxWeight);
+        }
+        this.maxEntries = maxEntries;
+        this.maxWeight = maxWeight;
+        this.weigher = weigher;
+    }
+
+    /**
+     * Returns the value of the given key and marks the entry as most recently used.
+     *
+     * @param key the key
+     * @return the value, or null if the key is not in the cache
+     */
+    public synchronized V get(K key) {
+        return entries.get(key);
+    }
+
+    /**
+     * Saves the value for the given key and evicts the least recently used entries if a limit is exceeded.
+     *
+     * @param key the key
+     * @param value the value
+     */
+    public synchronized void put(K key, V value) {
+        long entryWeight = weigher.weigh(key, value);
+        V previous = entries.remove(key);
+        if (previous != null) {
+            weight -= weigher.weigh(key, previous);
+        }
+        if (entryWeight > maxWeight) {
+            return;
+        }
+
+        entries.put(key, value);
+        weight += entryWeight;
+        Iterator<Map.Entry<K, V>> it = entries.entrySet().iterator();
+        while (entries.size() > maxEntries || weight > maxWeight) {
+            Map.Entry<K, V> eldest = it.next();
+            weight -= weigher.weigh(eldest.getKey(), eldest.getValue());
+            it.remove();
+        }
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * @return the total weight of all entries
+     */
+    public synchronized long getWeight() {
+        return weight;
+    }
+
+    /**
+     * Returns the weight of a cache entry.
+     *
+     * @param <K> the key type
+     * @param <V> the value type
+     */
+    @FunctionalInterface
+    public interface Weigher<K, V> {
+
+        long weigh(K key, V value);
+
+    }
+}
@@ -0,0 +1,79 @@
+package ch.jalu.wordlehelper.util;
+
+import ch.jalu.wordlehelper.model.WordDictionary;
+
+import java.util.Arrays;
+
+/**
+ * Set of packed words (see {@link WordDictionary}) that stores the ints in an open-addressing table, so that no
+ * object is created per word. Packed words are never negative, which is used to mark empty slots.
+ */
+public class PackedWordSet {
+
+    private static final int EMPTY = -1;
+
+    private int[] table;
+    private int size;
+
+    /**
+     * Constructor.
+     *
+     * @param expectedSize number of words the set should hold without growing
+     */
+    public PackedWordSet(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(16, expectedSize * 2 - 1)) << 1;
+        this.table = new int[capacity];
+        Arrays.fill(table, EMPTY);
+    }
+
+    /**
+     * Adds the packed word to the set.
+     *
+     * @param packedWord the packed word to add (not negative)
+     * @return true if the word was added, false if it was already present
+     */
+    public boolean add(int packedWord) {
+        if (packedWord < 0) {
+            throw new IllegalArgumentException("Packed words cannot be negative, got " + packedWord);
+        }
+        int mask = table.length - 1;
+        for (int slot = mix(packedWord) & mask; ; slot = (slot + 1) & mask) {
+            if (table[slot] == packedWord) {
+                return false;
+            } else if (table[slot] == EMPTY) {
+                table[slot] = packedWord;
+                ++size;
+                if (size * 2 > table.length) {
+                    grow();
+                }
+                return true;
+            }
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private void grow() {
+        int[] oldTable = table;
+        table = new int[oldTable.length * 2];
+        Arrays.fill(table, EMPTY);
+        int mask = table.length - 1;
+        for (int packedWord : oldTable) {
+            if (packedWord != EMPTY) {
+                int slot = mix(packedWord) & mask;
+                while (table[slot] != EMPTY) {
+                    slot = (slot + 1) & mask;
+                }
+                table[slot] = packedWord;
+            }
+        }
+    }
+
+    /** Spreads the bits of the packed word, since words with a common start only differ in the low bits. */
+    private static int mix(int packedWord) {
+        int hash = packedWord * 0x9E3779B9;
+        return hash ^ (hash >>> 16);
+    }
+}
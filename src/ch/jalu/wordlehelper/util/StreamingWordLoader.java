@@ -0,0 +1,282 @@
+package ch.jalu.wordlehelper.util;
+
+import ch.jalu.wordlehelper.model.WordDictionary;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static ch.jalu.wordlehelper.Constants.WORD_LENGTH;
+
+/**
+ * Loads large word files (e.g. several word lists that were concatenated) into a {@link WordDictionary}.
+ * <p>
+ * The file is split into chunks at line breaks, which are memory-mapped and parsed in parallel. Every line is trimmed
+ * and upper-cased; lines that are not a word of {@link ch.jalu.wordlehelper.Constants#WORD_LENGTH} letters A-Z are
+ * rejected and counted in the {@link Report} instead of aborting the load. Words are kept as packed ints and are
+ * deduplicated with a {@link PackedWordSet}, so no string is created for a line until the dictionary is built.
+ * Words keep the order of their first occurrence in the file.
+ */
+public final class StreamingWordLoader {
+
+    /** Maximum number of rejected lines that are kept as examples in the report. */
+    private static final int MAX_REJECTED_SAMPLES = 20;
+
+    private static final int MIN_CHUNK_SIZE = 64 * 1024;
+    private static final int MAX_CHUNK_SIZE = 8 * 1024 * 1024;
+
+    private StreamingWordLoader() {
+    }
+
+    /**
+     * Loads the words of the given file.
+     *
+     * @param path the file to read
+     * @return the dictionary and the report of the read lines
+     */
+    public static Result load(Path path) {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long[] boundaries = findChunkBoundaries(channel);
+            ChunkResult[] chunkResults = new ChunkResult[boundaries.length - 1];
+            IntStream.range(0, chunkResults.length).parallel().forEach(chunk -> {
+                try {
+                    long start = boundaries[chunk];
+                    MappedByteBuffer buffer =
+                        channel.map(FileChannel.MapMode.READ_ONLY, start, boundaries[chunk + 1] - start);
+                    chunkResults[chunk] = parseChunk(buffer, start == 0 ? skipByteOrderMark(buffer) : 0);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            return merge(chunkResults);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Splits the file into chunks of roughly the same size so that every chunk starts at the beginning of a line.
+     * Returns the start of every chunk, followed by the file size.
+     */
+    private static long[] findChunkBoundaries(FileChannel channel) throws IOException {
+        long size = channel.size();
+        long targetChunkSize = Math.max(MIN_CHUNK_SIZE,
+            Math.min(MAX_CHUNK_SIZE, size / (4L * Runtime.getRuntime().availableProcessors())));
+
+        List<Long> boundaries = new ArrayList<>();
+        boundaries.add(0L);
+        ByteBuffer buffer = ByteBuffer.allocate(4096);
+        long position = targetChunkSize;
+        while (position < size) {
+            // Move the boundary to the start of the next line
+            long lineStart = -1;
+            while (lineStart < 0 && position < size) {
+                buffer.clear();
+                int read = channel.read(buffer, position);
+                for (int i = 0; i < read; ++i) {
+                    if (buffer.get(i) == '\n') {
+                        lineStart = position + i + 1;
+                        break;
+                    }
+                }
+                position += Math.max(read, 0);
+            }
+            if (lineStart < 0 || lineStart >= size) {
+                break;
+            }
+            boundaries.add(lineStart);
+            position = lineStart + targetChunkSize;
+        }
+        boundaries.add(size);
+        return boundaries.stream().mapToLong(Long::longValue).toArray();
+    }
+
+    /**
+     * Returns the number of bytes of the UTF-8 byte order mark at the start of the buffer, or 0 if there is none.
+     */
+    private static int skipByteOrderMark(ByteBuffer buffer) {
+        boolean hasByteOrderMark = buffer.limit() >= 3
+            && buffer.get(0) == (byte) 0xEF && buffer.get(1) == (byte) 0xBB && buffer.get(2) == (byte) 0xBF;
+        return hasByteOrderMark ? 3 : 0;
+    }
+
+    private static ChunkResult parseChunk(ByteBuffer buffer, int start) {
+        ChunkResult result = new ChunkResult();
+        int lineStart = start;
+        int limit = buffer.limit();
+        for (int i = start; i <= limit; ++i) {
+            if (i == limit || buffer.get(i) == '\n') {
+                if (i > lineStart || i < limit) {
+                    ++result.lines;
+                    parseLine(buffer, lineStart, i, result);
+                }
+                lineStart = i + 1;
+            }
+        }
+        return result;
+    }
+
+    private static void parseLine(ByteBuffer buffer, int start, int end, ChunkResult result) {
+        int trimmedStart = start;
+        int trimmedEnd = end;
+        while (trimmedStart < trimmedEnd && isWhitespace(buffer.get(trimmedStart))) {
+            ++trimmedStart;
+        }
+        while (trimmedEnd > trimmedStart && isWhitespace(buffer.get(trimmedEnd - 1))) {
+            --trimmedEnd;
+        }
+        if (trimmedStart == trimmedEnd) {
+            return; // empty lines are skipped like in FileUtil
+        }
+
+        int packedWord = trimmedEnd - trimmedStart == WORD_LENGTH ? pack(buffer, trimmedStart) : -1;
+        if (packedWord < 0) {
+            ++result.rejected;
+            if (result.rejectedSamples.size() < MAX_REJECTED_SAMPLES) {
+                byte[] line = new byte[trimmedEnd - trimmedStart];
+                buffer.get(trimmedStart, line);
+                result.rejectedSamples.add(new RejectedLine(result.lines, new String(line, StandardCharsets.UTF_8)));
+            }
+        } else if (result.wordSet.add(packedWord)) {
+            result.addWord(packedWord);
+        } else {
+            ++result.duplicates;
+        }
+    }
+
+    /**
+     * Packs the word of {@link ch.jalu.wordlehelper.Constants#WORD_LENGTH} bytes at the given position, converting
+     * lower case letters to upper case. Returns -1 if a byte is not a letter A-Z.
+     */
+    private static int pack(ByteBuffer buffer, int start) {
+        int packedWord = 0;
+        for (int i = 0; i < WORD_LENGTH; ++i) {
+            int chr = buffer.get(start + i);
+            if (chr >= 'a' && chr <= 'z') {
+                chr -= 'a' - 'A';
+            } else if (chr < 'A' || chr > 'Z') {
+                return -1;
+            }
+            packedWord |= (chr - 'A') << (WordDictionary.LETTER_BITS * i);
+        }
+        return packedWord;
+    }
+
+    private static boolean isWhitespace(byte chr) {
+        return chr == ' ' || chr == '\t' || chr == '\r' || chr == 0x0B || chr == 0x0C;
+    }
+
+    /**
+     * Combines the chunks in file order: words that were seen in an earlier chunk are duplicates, and the line
+     * numbers of the rejected lines are shifted by the lines of the previous chunks.
+     */
+    private static Result merge(ChunkResult[] chunkResults) {
+        int uniqueWordsInChunks = Arrays.stream(chunkResults).mapToInt(chunk -> chunk.wordCount).sum();
+        PackedWordSet wordSet = new PackedWordSet(uniqueWordsInChunks);
+        int[] packedWords = new int[uniqueWordsInChunks];
+        int wordCount = 0;
+        long lines = 0;
+        long duplicates = 0;
+        long rejected = 0;
+        List<RejectedLine> rejectedSamples = new ArrayList<>();
+
+        for (ChunkResult chunk : chunkResults) {
+            for (int i = 0; i < chunk.wordCount; ++i) {
+                if (wordSet.add(chunk.packedWords[i])) {
+                    packedWords[wordCount] = chunk.packedWords[i];
+                    ++wordCount;
+                } else {
+                    ++duplicates;
+                }
+            }
+            for (RejectedLine rejectedLine : chunk.rejectedSamples) {
+                if (rejectedSamples.size() < MAX_REJECTED_SAMPLES) {
+                    rejectedSamples.add(new RejectedLine(lines + rejectedLine.lineNumber(), rejectedLine.line()));
+                }
+            }
+            lines += chunk.lines;
+            duplicates += chunk.duplicates;
+            rejected += chunk.rejected;
+        }
+
+        WordDictionary dictionary = WordDictionary.ofPackedWords(Arrays.copyOf(packedWords, wordCount));
+        return new Result(dictionary, new Report(lines, wordCount, duplicates, rejected, rejectedSamples));
+    }
+
+    /**
+     * Words and statistics of one chunk of the file.
+     */
+    private static final class ChunkResult {
+
+        private int wordCount;
+        private long lines;
+        private long duplicates;
+        private long rejected;
+        private final List<RejectedLine> rejectedSamples = new ArrayList<>();
+
+        // Both grow with the distinct words of the chunk, so a chunk with many duplicates stays small
+        private final PackedWordSet wordSet = new PackedWordSet(1024);
+        private int[] packedWords = new int[1024];
+
+        void addWord(int packedWord) {
+            if (wordCount == packedWords.length) {
+                packedWords = Arrays.copyOf(packedWords, packedWords.length * 2);
+            }
+            packedWords[wordCount] = packedWord;
+            ++wordCount;
+        }
+    }
+
+    /**
+     * Result of loading a word file.
+     *
+     * @param dictionary the distinct words of the file
+     * @param report statistics of the read lines
+     */
+    public record Result(WordDictionary dictionary, Report report) {
+    }
+
+    /**
+     * Statistics of a loaded word file.
+     *
+     * @param lines number of lines
+     * @param words number of distinct words
+     * @param duplicates number of lines with a word that appeared before
+     * @param rejected number of lines that are not a valid word
+     * @param rejectedSamples the first rejected lines
+     */
+    public record Report(long lines, int words, long duplicates, long rejected, List<RejectedLine> rejectedSamples) {
+
+        public Report {
+            rejectedSamples = List.copyOf(rejectedSamples);
+        }
+
+        @Override
+        public String toString() {
+            return lines + " lines: " + words + " words, " + duplicates + " duplicates, " + rejected + " rejected";
+        }
+    }
+
+    /**
+     * Line that was not accepted as word.
+     *
+     * @param lineNumber the line number (1-based)
+     * @param line the trimmed line
+     */
+    public record RejectedLine(long lineNumber, String line) {
+
+        @Override
+        public String toString() {
+            return lineNumber + ": '" + line + "'";
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package ch.jalu.wordlehelper.util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Collects values by score and only keeps the values of the best N distinct scores. Ties are never broken: all
+ * values with the same score as one of the best N scores are kept, so the result may contain more than N values.
+ * Scores are added one by one, so only the kept scores are ever held in memory.
+ * <p>
+ * Values with the same score are kept in the order they were added. Collectors are not thread-safe, but a collector
+ * can be used per thread and the results can be combined with {@link #merge}.
+ *
+ * @param <K> the score type
+ * @param <V> the value type
+ */
+public class TopKeysCollector<K, V> {
+
+    private final int nBestToKeep;
+    private final TreeMap<K, List<V>> valuesByKey;
+
+    private TopKeysCollector(int nBestToKeep, Comparator<? super K> bestFirstComparator) {
+        if (nBestToKeep < 1) {
+            throw new IllegalArgumentException("Number of keys to keep must be positive, got " + nBestToKeep);
+        }
+        this.nBestToKeep = nBestToKeep;
+        this.valuesByKey = new TreeMap<>(bestFirstComparator);
+    }
+
+    /**
+     * Creates a collector that keeps the values of the highest scores.
+     *
+     * @param nBestToKeep number of distinct scores to keep
+     * @param <K> the score type
+     * @param <V> the value type
+     * @return new collector
+     */
+    public static <K extends Comparable<K>, V> TopKeysCollector<K, V> highest(int nBestToKeep) {
+        return new TopKeysCollector<>(nBestToKeep, Collections.reverseOrder());
+    }
+
+    /**
+     * Creates a collector that keeps the values of the lowest scores.
+     *
+     * @param nBestToKeep number of distinct scores to keep
+     * @param <K> the score type
+     * @param <V> the value type
+     * @return new collector
+     */
+    public static <K extends Comparable<K>, V> TopKeysCollector<K, V> lowest(int nBestToKeep) {
+        return new TopKeysCollector<>(nBestToKeep, Comparator.naturalOrder());
+    }
+
+    /**
+     * Adds the value with the given score if the score is among the best N scores so far.
+     *
+     * @param key the score
+     * @param value the value
+     */
+    public void add(K key, V value) {
+        List<V> values = valuesByKey.get(key);
+        if (values == null) {
+            if (valuesByKey.size() == nBestToKeep) {
+                if (valuesByKey.comparator().compare(key, valuesByKey.lastKey()) > 0) {
+                    return;
+                }
+                valuesByKey.pollLastEntry();
+            }
+            values = new ArrayList<>();
+            valuesByKey.put(key, values);
+        }
+        values.add(value);
+    }
+
+    /**
+     * Adds all values of the other collector to this collector. The values of the other collector are added after
+     * the values of this collector if they have the same score.
+     *
+     * @param other the collector to merge into this one
+     * @return this collector
+     */
+    public TopKeysCollector<K, V> merge(TopKeysCollector<K, V> other) {
+        for (Map.Entry<K, List<V>> entry : other.valuesByKey.entrySet()) {
+            for (V value : entry.getValue()) {
+                add(entry.getKey(), value);
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Returns the kept values by score, best score first. The returned map is backed by this collector.
+     *
+     * @return values of the best scores
+     */
+    public TreeMap<K, List<V>> getBackingMap() {
+        return valuesByKey;
+    }
+}